@@ -1,25 +1,45 @@
 package com.poly.crawler.config;
 
+import com.poly.crawler.manager.RouteManager;
 import com.poly.crawler.properties.CrawlerProperties;
 import java.nio.charset.StandardCharsets;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Resource;
 import javax.net.ssl.SSLContext;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.config.Registry;
 import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoutePlanner;
 import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.DefaultRoutePlanner;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.protocol.HttpContext;
 import org.apache.http.ssl.SSLContextBuilder;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.ClientHttpRequestFactory;
@@ -29,6 +49,7 @@ import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.http.converter.json.GsonHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.lang.NonNull;
+import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -45,22 +66,87 @@ public class CrawlerRestTemplateConfig {
     @Resource
     private CrawlerProperties crawlerProperties;
 
+    /**
+     * 代理请求默认配置；只使用代理池时可以不配置 crawler.proxy.host，由 ProxyPoolManager 为每个请求指定代理
+     */
     @Bean(name = "crawlerRequestConfig")
     public RequestConfig requestConfig() {
+        CrawlerProperties.Proxy proxy = crawlerProperties.getProxy();
         return RequestConfig.custom()
             .setConnectTimeout(crawlerProperties.getHttp().getConnectTimeout())
             .setSocketTimeout(crawlerProperties.getHttp().getSocketTimeout())
             .setConnectionRequestTimeout(crawlerProperties.getHttp().getConnectionRequestTimeout())
-            .setProxy(new HttpHost(crawlerProperties.getProxy().getHost(), crawlerProperties.getProxy().getPort()))
+            .setProxy(proxy != null && StringUtils.hasText(proxy.getHost())
+                ? new HttpHost(proxy.getHost(), proxy.getPort()) : null)
+            .build();
+
+    }
+
+    /**
+     * 代理请求 NIO 连接池，连接数上限与 crawlerRestTemplate 相同
+     */
+    @Bean(name = "crawlerProxyConnectionManager", destroyMethod = "shutdown")
+    public PoolingNHttpClientConnectionManager proxyConnectionManager()
+        throws NoSuchAlgorithmException, KeyStoreException, KeyManagementException, IOReactorException {
+        int ioThreads = crawlerProperties.getHttp().getIoThreads();
+        IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+            .setIoThreadCount(ioThreads > 0 ? ioThreads : Runtime.getRuntime().availableProcessors())
+            .setConnectTimeout(crawlerProperties.getHttp().getConnectTimeout())
+            .setSoTimeout(crawlerProperties.getHttp().getSocketTimeout())
+            .build();
+
+        Registry<SchemeIOSessionStrategy> sessionStrategyRegistry = RegistryBuilder.<SchemeIOSessionStrategy>create()
+            .register("http", NoopIOSessionStrategy.INSTANCE)
+            // https跳过ssl认证
+            .register("https", new SSLIOSessionStrategy(this.trustAllSslContext(), (x, y) -> true))
             .build();
 
+        PoolingNHttpClientConnectionManager cm = new PoolingNHttpClientConnectionManager(
+            new DefaultConnectingIOReactor(ioReactorConfig), sessionStrategyRegistry);
+        cm.setMaxTotal(crawlerProperties.getHttp().getMaxTotalConnect());
+        cm.setDefaultMaxPerRoute(crawlerProperties.getHttp().getMaxConnectPerRoute());
+        return cm;
+    }
+
+    /**
+     * 走代理的异步长连接客户端，所有代理请求共享，少量 I/O 线程承载全部在途请求
+     * <p>不保存 cookie，与每次请求新建客户端时的行为一致。
+     */
+    @Bean(name = "crawlerProxyHttpClient", destroyMethod = "close")
+    public CloseableHttpAsyncClient proxyHttpClient(
+        @Qualifier("crawlerProxyConnectionManager") PoolingNHttpClientConnectionManager cm,
+        @Qualifier("crawlerScheduledExecutor") ScheduledExecutorService crawlerScheduledExecutor) {
+        long keepAliveMs = crawlerProperties.getHttp().getKeepAliveMs();
+        ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+            // 优先使用响应头 Keep-Alive: timeout=n，不超过配置的上限
+            long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return duration > 0 ? Math.min(duration, keepAliveMs) : keepAliveMs;
+        };
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+            .setConnectionManager(cm)
+            .setDefaultRequestConfig(this.requestConfig())
+            .setKeepAliveStrategy(keepAliveStrategy)
+            .disableCookieManagement()
+            .build();
+        client.start();
+
+        // 定期关闭过期和空闲过久的连接
+        long idleEvictSeconds = crawlerProperties.getHttp().getIdleEvictSeconds();
+        crawlerScheduledExecutor.scheduleWithFixedDelay(() -> {
+            cm.closeExpiredConnections();
+            cm.closeIdleConnections(idleEvictSeconds, TimeUnit.SECONDS);
+        }, idleEvictSeconds, idleEvictSeconds, TimeUnit.SECONDS);
+        return client;
     }
 
+    /**
+     * 直连为主的同步客户端，按 crawler.route.rules 为指定 host 走代理
+     */
     @Bean(name = "crawlerRestTemplate")
-    public RestTemplate restTemplate() {
+    public RestTemplate restTemplate(RouteManager routeManager) {
         RestTemplate restTemplate = null;
         try {
-            restTemplate = new RestTemplate(this.createFactory());
+            restTemplate = new RestTemplate(this.createFactory(routeManager));
             handleMessageConverters(restTemplate);
         } catch (NoSuchAlgorithmException | KeyStoreException | KeyManagementException e) {
             log.error("restTemplate构建失败", e);
@@ -73,21 +159,9 @@ public class CrawlerRestTemplateConfig {
      * 通过apache httpClient 实现restTemplate连接池
      */
     @NonNull
-    private ClientHttpRequestFactory createFactory()
+    private ClientHttpRequestFactory createFactory(RouteManager routeManager)
         throws NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
 
-        // 安全套接字配置跳过SSL认证
-        SSLContext sslContext = SSLContextBuilder.create()
-            .setProtocol(SSLConnectionSocketFactory.SSL)
-            .loadTrustMaterial((x, y) -> true)
-            .build();
-
-        Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
-            .register("http", PlainConnectionSocketFactory.getSocketFactory())
-            // https跳过ssl认证
-            .register("https", new SSLConnectionSocketFactory(sslContext, (x, y) -> true))
-            .build();
-
         // 配置超时时间
         RequestConfig config = RequestConfig.custom()
             .setConnectTimeout(crawlerProperties.getHttp().getConnectTimeout())
@@ -96,18 +170,51 @@ public class CrawlerRestTemplateConfig {
             .build();
 
         // 配置连接池
-        PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+        PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager(this.socketFactoryRegistry());
         cm.setMaxTotal(crawlerProperties.getHttp().getMaxTotalConnect());
         cm.setDefaultMaxPerRoute(crawlerProperties.getHttp().getMaxConnectPerRoute());
 
         HttpClient httpClient = HttpClientBuilder.create()
             .setConnectionManager(cm)
             .setDefaultRequestConfig(config)
+            .setRoutePlanner(this.routePlanner(routeManager))
             .build();
 
         return new HttpComponentsClientHttpRequestFactory(httpClient);
     }
 
+    /**
+     * 按路由规则为每个请求选择直连或代理
+     */
+    private HttpRoutePlanner routePlanner(RouteManager routeManager) {
+        return new DefaultRoutePlanner(null) {
+            @Override
+            protected HttpHost determineProxy(HttpHost target, HttpRequest request, HttpContext context) {
+                return routeManager.determineProxy(target.getHostName(), HttpClientContext.adapt(context));
+            }
+        };
+    }
+
+    private Registry<ConnectionSocketFactory> socketFactoryRegistry()
+        throws NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
+        return RegistryBuilder.<ConnectionSocketFactory>create()
+            .register("http", PlainConnectionSocketFactory.getSocketFactory())
+            // https跳过ssl认证
+            .register("https", new SSLConnectionSocketFactory(this.trustAllSslContext(), (x, y) -> true))
+            .build();
+    }
+
+    /**
+     * 安全套接字配置跳过SSL认证
+     */
+    private SSLContext trustAllSslContext()
+        throws NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
+        return SSLContextBuilder.create()
+            .setProtocol(SSLConnectionSocketFactory.SSL)
+            .loadTrustMaterial((x, y) -> true)
+            .build();
+    }
+
 
     /**
      * 处理数据转换
@@ -1,10 +1,13 @@
 package com.poly.crawler.config;
 
 import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadPoolExecutor.AbortPolicy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 
@@ -27,6 +30,24 @@ public class CrawlerThreadPoolConfig {
     @Value("${crawler.thread.pool.queueCapacity:1000}")
     private int queueCapacity;
 
+    @Value("${crawler.thread.scheduler.poolSize:2}")
+    private int schedulerPoolSize;
+
+    /**
+     * 处理线程数，小于等于 0 时取 CPU 核数
+     */
+    @Value("${crawler.thread.process.poolSize:0}")
+    private int processPoolSize;
+
+    @Value("${crawler.thread.process.queueCapacity:200}")
+    private int processQueueCapacity;
+
+    @Value("${crawler.thread.cache.poolSize:4}")
+    private int cachePoolSize;
+
+    @Value("${crawler.thread.cache.queueCapacity:1000}")
+    private int cacheQueueCapacity;
+
     @Bean(name = "crawlerTaskExecutor")
     public ThreadPoolTaskExecutor ioTaskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
@@ -36,6 +57,7 @@ public class CrawlerThreadPoolConfig {
         executor.setThreadNamePrefix("crawlerTaskExecutor-");
 
         // 设置默认的拒绝策略 线程池和任务队列都已满，新的任务尝试提交时 抛异常
+        // 单个批量任务经 SubmitWindowManager 限制在途数量；多个批量任务同时执行触发拒绝时，AbsCrawlerProcessor 延迟后再次投递
         RejectedExecutionHandler rejectedExecutionHandler = new AbortPolicy();
         executor.setRejectedExecutionHandler(rejectedExecutionHandler);
 
@@ -43,4 +65,49 @@ public class CrawlerThreadPoolConfig {
         return executor;
     }
 
+    /**
+     * 页面处理线程池（CPU 密集），流水线模式下 process 阶段在此执行
+     * <p>队列满时抛出 RejectedExecutionException，由 AbsCrawlerProcessor 延迟后再次投递，不占用下载线程（可能是 I/O 线程）。
+     */
+    @Bean(name = "crawlerProcessExecutor")
+    public ThreadPoolTaskExecutor processTaskExecutor() {
+        int poolSize = processPoolSize > 0 ? processPoolSize : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(processQueueCapacity);
+        executor.setThreadNamePrefix("crawlerProcessExecutor-");
+        executor.setRejectedExecutionHandler(new AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 磁盘 HTTP 缓存读写线程池，异步请求读取、写入缓存时不占用调用线程和 I/O 线程
+     * <p>队列满时抛出 RejectedExecutionException，由 HttpCacheManager 跳过本次缓存读写。
+     */
+    @Bean(name = "crawlerCacheExecutor")
+    public ThreadPoolTaskExecutor cacheTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(cachePoolSize);
+        executor.setMaxPoolSize(cachePoolSize);
+        executor.setQueueCapacity(cacheQueueCapacity);
+        executor.setThreadNamePrefix("crawlerCacheExecutor-");
+        executor.setRejectedExecutionHandler(new AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 延迟任务调度线程池，只负责定时把任务投递到 crawlerTaskExecutor，不执行耗时任务
+     */
+    @Bean(name = "crawlerScheduledExecutor", destroyMethod = "shutdownNow")
+    public ScheduledExecutorService crawlerScheduledExecutor() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(schedulerPoolSize,
+                new CustomizableThreadFactory("crawlerScheduler-"));
+        // 任务取消后立即从队列移除，避免大量已取消的延迟任务占用内存
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
 }
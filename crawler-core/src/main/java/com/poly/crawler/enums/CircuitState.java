@@ -0,0 +1,23 @@
+package com.poly.crawler.enums;
+
+/**
+ * CircuitState 熔断器状态
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+public enum CircuitState {
+    /**
+     * 正常放行
+     */
+    CLOSED,
+    /**
+     * 熔断中，直接拒绝
+     */
+    OPEN,
+    /**
+     * 半开，只放行探测请求
+     */
+    HALF_OPEN
+}
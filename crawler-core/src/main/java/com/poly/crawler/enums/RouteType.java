@@ -0,0 +1,23 @@
+package com.poly.crawler.enums;
+
+/**
+ * RouteType 请求路由方式
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+public enum RouteType {
+    /**
+     * 直连，不走代理
+     */
+    DIRECT,
+    /**
+     * 走指定代理，未指定时为 crawler.proxy
+     */
+    PROXY,
+    /**
+     * 走代理池，代理池关闭时为 crawler.proxy
+     */
+    POOL
+}
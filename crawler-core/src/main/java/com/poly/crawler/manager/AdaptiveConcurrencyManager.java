@@ -0,0 +1,148 @@
+package com.poly.crawler.manager;
+
+import com.poly.crawler.exception.CrawlerException;
+import com.poly.crawler.exception.CrawlerRetryException;
+import com.poly.crawler.model.ConcurrencyLimitStats;
+import com.poly.crawler.properties.CrawlerProperties;
+import com.poly.crawler.util.ConcurrencyLimit;
+import com.poly.crawler.util.UrlUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 按 host 的自适应并发控制，位于 HttpManager、ProxyHttpManager、PlaywrightManager 的实际请求之前
+ * <p>每个 host 一个 {@link ConcurrencyLimit}：延迟平稳时逐步放开并发，超时、429、503 或延迟上升时收缩，
+ * 慢 host 不再占满线程，快 host 可以跑满。
+ * <p>配置项：{@code crawler.adaptive-limit.*}
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Component
+@Slf4j
+public class AdaptiveConcurrencyManager {
+
+    private static final Permit NOOP = new Permit(null);
+
+    @Resource
+    private CrawlerProperties crawlerProperties;
+
+    private final Map<String, ConcurrencyLimit> limits = new ConcurrentHashMap<>();
+
+    /**
+     * 获取 url 对应 host 的并发许可，请求结束后必须调用 Permit 的 onSuccess / onDropped / onIgnore 之一
+     *
+     * @param deadline 截止时间（毫秒时间戳），0 表示最多等待 crawler.timeoutSeconds
+     */
+    public Permit acquire(String url, long deadline) {
+        CrawlerProperties.AdaptiveLimit config = crawlerProperties.getAdaptiveLimit();
+        if (!config.isEnabled()) {
+            return NOOP;
+        }
+        String host = UrlUtils.getHost(url);
+        ConcurrencyLimit limit = limits.computeIfAbsent(host, this::createLimit);
+
+        long timeoutMs = deadline > 0 ? deadline - System.currentTimeMillis()
+                : TimeUnit.SECONDS.toMillis(crawlerProperties.getTimeoutSeconds());
+        try {
+            if (!limit.acquire(TimeUnit.MILLISECONDS.toNanos(Math.max(0, timeoutMs)))) {
+                throw new CrawlerRetryException("Timed out waiting for concurrency permit, host: " + host);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CrawlerException("Interrupted while waiting for concurrency permit, host: " + host);
+        }
+        return new Permit(limit);
+    }
+
+    /**
+     * 异步获取 url 对应 host 的并发许可，达到上限时排队，其他请求释放许可时交给等待者，调用线程不等待
+     * <p>返回的 future 可能在释放许可的线程（如 I/O 线程）中完成，后续回调不应阻塞。
+     * 取消返回的 future 即放弃等待（由调用方按截止时间取消）；future 正常完成后需照常释放许可。
+     */
+    public CompletableFuture<Permit> acquireAsync(String url) {
+        CrawlerProperties.AdaptiveLimit config = crawlerProperties.getAdaptiveLimit();
+        if (!config.isEnabled()) {
+            return CompletableFuture.completedFuture(NOOP);
+        }
+        ConcurrencyLimit limit = limits.computeIfAbsent(UrlUtils.getHost(url), this::createLimit);
+        CompletableFuture<Void> waiter = limit.acquireAsync();
+        CompletableFuture<Permit> permit = new CompletableFuture<>();
+        waiter.thenRun(() -> {
+            if (!permit.complete(new Permit(limit))) {
+                // 获得许可的同时已被取消
+                limit.onIgnore();
+            }
+        });
+        permit.whenComplete((result, throwable) -> {
+            if (permit.isCancelled()) {
+                waiter.cancel(false);
+            }
+        });
+        return permit;
+    }
+
+    /**
+     * 是否为站点过载响应（需要收缩并发）
+     */
+    public static boolean isOverloaded(int statusCode) {
+        return statusCode == 429 || statusCode == 503;
+    }
+
+    /**
+     * 当前各 host 的并发上限
+     */
+    public List<ConcurrencyLimitStats> getStats() {
+        List<ConcurrencyLimitStats> stats = new ArrayList<>(limits.size());
+        limits.forEach((host, limit) -> stats.add(limit.stats(host)));
+        return stats;
+    }
+
+    private ConcurrencyLimit createLimit(String host) {
+        CrawlerProperties.AdaptiveLimit config = crawlerProperties.getAdaptiveLimit();
+        log.info("Creating concurrency limit for host: [{}], initialLimit: {}", host, config.getInitialLimit());
+        return new ConcurrencyLimit(config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit(),
+                config.getRttTolerance(), config.getBackoffRatio());
+    }
+
+    /**
+     * 单次请求的并发许可，只会释放一次
+     */
+    public static final class Permit {
+
+        private final ConcurrencyLimit limit;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(ConcurrencyLimit limit) {
+            this.limit = limit;
+        }
+
+        public void onSuccess() {
+            if (limit != null && released.compareAndSet(false, true)) {
+                limit.onSuccess(System.nanoTime() - startNanos);
+            }
+        }
+
+        public void onDropped() {
+            if (limit != null && released.compareAndSet(false, true)) {
+                limit.onDropped();
+            }
+        }
+
+        public void onIgnore() {
+            if (limit != null && released.compareAndSet(false, true)) {
+                limit.onIgnore();
+            }
+        }
+    }
+}
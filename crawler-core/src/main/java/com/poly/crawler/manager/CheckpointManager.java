@@ -0,0 +1,387 @@
+package com.poly.crawler.manager;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.poly.crawler.exception.CrawlerException;
+import com.poly.crawler.model.CheckpointStats;
+import com.poly.crawler.model.CrawlerContext;
+import com.poly.crawler.properties.CrawlerProperties;
+import com.poly.crawler.util.UrlUtils;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import javax.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+/**
+ * 批量任务检查点：按 batchId 把已完成 context 的 id 和结果追加写入本地日志，定时刷盘，关闭时刷盘
+ * <p>同一个 batchId 再次执行时跳过已完成的 context，直接交付日志中的结果；批量任务正常结束后删除日志。
+ * 结果只保存在日志中，内存占用只随已完成的 context 数增长，与结果大小无关。
+ * context id 由规范化 url + 输入参数计算，跨进程稳定。
+ * <p>配置项：{@code crawler.checkpoint.*}
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Component
+@Slf4j
+public class CheckpointManager implements InitializingBean, DisposableBean {
+
+    private static final Pattern BATCH_ID_PATTERN = Pattern.compile("[A-Za-z0-9_.-]+");
+    private static final String JOURNAL_SUFFIX = ".journal";
+
+    @Resource
+    private CrawlerProperties crawlerProperties;
+
+    @Resource(name = "crawlerScheduledExecutor")
+    private ScheduledExecutorService crawlerScheduledExecutor;
+
+    private final Map<String, Checkpoint> checkpoints = new ConcurrentHashMap<>();
+
+    private ScheduledFuture<?> flushTask;
+
+    @Override
+    public void afterPropertiesSet() {
+        long interval = crawlerProperties.getCheckpoint().getFlushIntervalMs();
+        if (interval > 0) {
+            flushTask = crawlerScheduledExecutor.scheduleWithFixedDelay(this::flushAll, interval, interval,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 关闭前把所有检查点刷盘，重新部署后可以继续
+     */
+    @Override
+    public void destroy() {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+        }
+        flushAll();
+        checkpoints.values().forEach(Checkpoint::close);
+    }
+
+    /**
+     * 打开检查点，加载已完成的 context
+     *
+     * @param batchId    批量任务 id
+     * @param resultType 结果类型，用于反序列化日志中的结果
+     */
+    public Checkpoint open(String batchId, Type resultType) {
+        if (batchId == null || !BATCH_ID_PATTERN.matcher(batchId).matches()) {
+            throw new CrawlerException("Invalid batch id: " + batchId);
+        }
+        Checkpoint checkpoint = new Checkpoint(batchId, journalPath(batchId), resultType);
+        if (checkpoints.putIfAbsent(batchId, checkpoint) != null) {
+            checkpoint.close();
+            throw new CrawlerException("Batch is already running: " + batchId);
+        }
+        return checkpoint;
+    }
+
+    /**
+     * 结束检查点
+     *
+     * @param complete 批量任务是否全部执行完成，完成时删除日志
+     */
+    public void finish(Checkpoint checkpoint, boolean complete) {
+        checkpoints.remove(checkpoint.batchId, checkpoint);
+        checkpoint.flush();
+        checkpoint.close();
+        if (complete) {
+            try {
+                Files.deleteIfExists(checkpoint.path);
+            } catch (IOException e) {
+                log.warn("Failed to delete checkpoint journal {}: {}", checkpoint.path, e.getMessage());
+            }
+        } else {
+            log.info("Batch {} incomplete, checkpoint kept with {} completed contexts", checkpoint.batchId,
+                    checkpoint.completed.size());
+        }
+    }
+
+    /**
+     * context id：规范化 url + 输入参数的 MD5
+     */
+    public static String contextId(CrawlerContext<?, ?> context) {
+        String key = UrlUtils.canonicalize(context.getUrl());
+        if (context.getParams() != null) {
+            key = key + "#" + JSON.toJSONString(context.getParams(), SerializerFeature.MapSortField);
+        }
+        return DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 统计信息：正在执行的批量任务的已完成数、未刷盘数
+     */
+    public List<CheckpointStats> getStats() {
+        List<CheckpointStats> stats = new ArrayList<>(checkpoints.size());
+        checkpoints.forEach((batchId, checkpoint) -> stats.add(CheckpointStats.builder()
+                .batchId(batchId)
+                .completed(checkpoint.completedCount())
+                .buffered(checkpoint.buffer.size())
+                .build()));
+        return stats;
+    }
+
+    private void flushAll() {
+        checkpoints.values().forEach(Checkpoint::flush);
+    }
+
+    private Path journalPath(String batchId) {
+        return Paths.get(crawlerProperties.getCheckpoint().getDir(), batchId + JOURNAL_SUFFIX);
+    }
+
+    /**
+     * 单个批量任务的检查点
+     * <p>内存中只保存已完成 context 的 id 和结果在日志中的偏移量，恢复时按偏移量从日志读回结果。
+     * 日志按偏移量定位写入，刷盘失败时保留未写入的数据，下次刷盘在同一位置重试，偏移量始终有效。
+     */
+    public static final class Checkpoint {
+
+        private final String batchId;
+        private final Path path;
+        private final Type resultType;
+
+        /**
+         * 已完成的 context id -> 结果所在日志行的偏移量
+         */
+        private final Map<String, Long> completed = new ConcurrentHashMap<>();
+
+        /**
+         * 待写入的日志行，与偏移量分配顺序一致
+         */
+        private final Queue<byte[]> buffer = new ConcurrentLinkedQueue<>();
+
+        /**
+         * 保证日志行入队顺序与偏移量分配顺序一致
+         */
+        private final Object appendLock = new Object();
+
+        /**
+         * 下一行日志的偏移量
+         */
+        private long appendPosition;
+
+        /**
+         * 已写入日志的字节数
+         */
+        private long flushedPosition;
+
+        /**
+         * 上次刷盘未写完的数据
+         */
+        private ByteBuffer unflushed;
+
+        private FileChannel channel;
+
+        private Checkpoint(String batchId, Path path, Type resultType) {
+            this.batchId = batchId;
+            this.path = path;
+            this.resultType = resultType;
+            load();
+        }
+
+        /**
+         * 已完成 context 的结果，从日志读回
+         *
+         * @return 结果，未完成或读取失败时返回 null（重新执行）
+         */
+        @SuppressWarnings("unchecked")
+        public <R> R replay(CrawlerContext<?, ?> context) {
+            Long offset = completed.get(contextId(context));
+            if (offset == null) {
+                return null;
+            }
+            String json = readResult(offset);
+            return json == null ? null : (R) JSON.parseObject(json, resultType);
+        }
+
+        /**
+         * 记录已完成的 context（null 结果不记录，下次重新执行）
+         */
+        public void record(CrawlerContext<?, ?> context, Object result) {
+            if (result == null) {
+                return;
+            }
+            String id = contextId(context);
+            if (completed.containsKey(id)) {
+                return;
+            }
+            JSONObject line = new JSONObject();
+            line.put("id", id);
+            line.put("result", JSON.toJSONString(result, SerializerFeature.DisableCircularReferenceDetect));
+            byte[] bytes = (line.toJSONString() + "\n").getBytes(StandardCharsets.UTF_8);
+            synchronized (appendLock) {
+                if (completed.putIfAbsent(id, appendPosition) == null) {
+                    appendPosition += bytes.length;
+                    buffer.add(bytes);
+                }
+            }
+        }
+
+        /**
+         * 已完成的 context 数
+         */
+        public int completedCount() {
+            return completed.size();
+        }
+
+        private synchronized void flush() {
+            if (unflushed == null && buffer.isEmpty()) {
+                return;
+            }
+            try {
+                if (unflushed == null) {
+                    ByteArrayOutputStream lines = new ByteArrayOutputStream();
+                    byte[] line;
+                    while ((line = buffer.poll()) != null) {
+                        lines.write(line, 0, line.length);
+                    }
+                    unflushed = ByteBuffer.wrap(lines.toByteArray());
+                }
+                FileChannel journal = channel();
+                while (unflushed.hasRemaining()) {
+                    journal.write(unflushed, flushedPosition + unflushed.position());
+                }
+                journal.force(false);
+                flushedPosition += unflushed.limit();
+                unflushed = null;
+            } catch (IOException e) {
+                log.error("Failed to flush checkpoint {}", path, e);
+            }
+        }
+
+        /**
+         * 读取 offset 处日志行中的结果 JSON，该行尚未刷盘时先刷盘
+         */
+        private synchronized String readResult(long offset) {
+            if (offset >= flushedPosition) {
+                flush();
+                if (offset >= flushedPosition) {
+                    return null;
+                }
+            }
+            try {
+                FileChannel journal = channel();
+                ByteArrayOutputStream line = new ByteArrayOutputStream();
+                ByteBuffer chunk = ByteBuffer.allocate(8192);
+                long position = offset;
+                while (true) {
+                    chunk.clear();
+                    int read = journal.read(chunk, position);
+                    if (read <= 0) {
+                        break;
+                    }
+                    int end = indexOf(chunk.array(), read, (byte) '\n');
+                    line.write(chunk.array(), 0, end < 0 ? read : end);
+                    if (end >= 0) {
+                        break;
+                    }
+                    position += read;
+                }
+                return JSON.parseObject(new String(line.toByteArray(), StandardCharsets.UTF_8)).getString("result");
+            } catch (IOException | JSONException e) {
+                log.warn("Failed to read checkpoint {} at {}: {}", path, offset, e.getMessage());
+                return null;
+            }
+        }
+
+        /**
+         * 懒打开日志，截掉崩溃时未写完的最后一行
+         */
+        private FileChannel channel() throws IOException {
+            if (channel == null) {
+                Files.createDirectories(path.toAbsolutePath().getParent());
+                channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE);
+                if (channel.size() > flushedPosition) {
+                    channel.truncate(flushedPosition);
+                }
+            }
+            return channel;
+        }
+
+        private synchronized void close() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    log.warn("Failed to close checkpoint {}: {}", path, e.getMessage());
+                }
+                channel = null;
+            }
+        }
+
+        /**
+         * 只读取每行的 id 和偏移量，不保留结果
+         */
+        private void load() {
+            if (!Files.exists(path)) {
+                return;
+            }
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+                ByteArrayOutputStream line = new ByteArrayOutputStream();
+                long position = 0;
+                long lineStart = 0;
+                int b;
+                while ((b = in.read()) != -1) {
+                    position++;
+                    if (b != '\n') {
+                        line.write(b);
+                        continue;
+                    }
+                    try {
+                        JSONObject json = JSON.parseObject(new String(line.toByteArray(), StandardCharsets.UTF_8));
+                        completed.put(json.getString("id"), lineStart);
+                    } catch (JSONException e) {
+                        log.warn("Skipping corrupt checkpoint line in {}", path);
+                    }
+                    line.reset();
+                    lineStart = position;
+                }
+                // 崩溃时未写完的最后一行不计入，之后的写入从这里覆盖
+                flushedPosition = lineStart;
+                appendPosition = lineStart;
+                log.info("Checkpoint {} loaded, {} contexts completed", path, completed.size());
+            } catch (IOException e) {
+                throw new CrawlerException("Failed to load checkpoint: " + path, e);
+            }
+        }
+
+        private static int indexOf(byte[] bytes, int length, byte target) {
+            for (int i = 0; i < length; i++) {
+                if (bytes[i] == target) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
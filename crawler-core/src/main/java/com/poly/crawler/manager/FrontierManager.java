@@ -0,0 +1,143 @@
+package com.poly.crawler.manager;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.TypeReference;
+import com.poly.crawler.exception.CrawlerException;
+import com.poly.crawler.model.CrawlerContext;
+import com.poly.crawler.model.FrontierStats;
+import com.poly.crawler.properties.CrawlerProperties;
+import com.poly.crawler.util.MappedQueue;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import javax.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+/**
+ * 持久化 frontier 管理：按名称打开 {@link MappedQueue}，负责 CrawlerContext 的序列化（url、params、extMap）
+ * <p>待爬取的 context 存在内存映射文件中，不占用堆内存；进程重启后从上次提交的位置继续。
+ * <p>配置项：{@code crawler.frontier.*}
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Component
+@Slf4j
+public class FrontierManager implements DisposableBean {
+
+    private static final Pattern NAME_PATTERN = Pattern.compile("[A-Za-z0-9_.-]+");
+
+    @Resource
+    private CrawlerProperties crawlerProperties;
+
+    private final Map<String, MappedQueue> queues = new ConcurrentHashMap<>();
+
+    /**
+     * 打开（不存在时创建）frontier
+     */
+    public MappedQueue queue(String name) {
+        if (name == null || !NAME_PATTERN.matcher(name).matches()) {
+            throw new CrawlerException("Invalid frontier name: " + name);
+        }
+        return queues.computeIfAbsent(name, key -> {
+            CrawlerProperties.Frontier config = crawlerProperties.getFrontier();
+            try {
+                return new MappedQueue(Paths.get(config.getDir(), key), config.getSegmentBytes(),
+                        config.getCommitInterval());
+            } catch (IOException e) {
+                throw new CrawlerException("Failed to open frontier: " + key, e);
+            }
+        });
+    }
+
+    /**
+     * 加入一个 context
+     */
+    public void offer(String name, CrawlerContext<?, ?> context) {
+        try {
+            queue(name).append(encode(context));
+        } catch (IOException e) {
+            throw new CrawlerException("Failed to append to frontier: " + name, e);
+        }
+    }
+
+    /**
+     * 批量加入 context
+     *
+     * @return 加入的数量
+     */
+    public int offerAll(String name, Iterable<? extends CrawlerContext<?, ?>> contexts) {
+        int count = 0;
+        for (CrawlerContext<?, ?> context : contexts) {
+            offer(name, context);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 确认记录已处理，提交失败只记录日志（重启后会重新投递）
+     */
+    public void ack(MappedQueue queue, long seq) {
+        try {
+            queue.ack(seq);
+        } catch (IOException e) {
+            log.error("Failed to commit frontier offset, seq: {}", seq, e);
+        }
+    }
+
+    /**
+     * 反序列化 context
+     *
+     * @param inputType 输入参数类型
+     */
+    public <I, O> CrawlerContext<I, O> decode(byte[] payload, Type inputType) {
+        JSONObject json = JSON.parseObject(new String(payload, StandardCharsets.UTF_8));
+        CrawlerContext<I, O> context = new CrawlerContext<>();
+        context.setUrl(json.getString("url"));
+        context.setParams(json.getObject("params", inputType));
+        context.setExtMap(json.getObject("extMap", new TypeReference<ConcurrentHashMap<String, Object>>() {
+        }.getType()));
+        return context;
+    }
+
+    public List<FrontierStats> getStats() {
+        List<FrontierStats> stats = new ArrayList<>(queues.size());
+        queues.forEach((name, queue) -> stats.add(FrontierStats.builder()
+                .name(name)
+                .pending(queue.pending())
+                .remaining(queue.remaining())
+                .segments(queue.segmentCount())
+                .build()));
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        queues.forEach((name, queue) -> {
+            try {
+                queue.close();
+            } catch (IOException e) {
+                log.error("Failed to close frontier: {}", name, e);
+            }
+        });
+    }
+
+    private byte[] encode(CrawlerContext<?, ?> context) {
+        JSONObject json = new JSONObject();
+        json.put("url", context.getUrl());
+        json.put("params", context.getParams());
+        json.put("extMap", context.getExtMap());
+        return JSON.toJSONBytes(json);
+    }
+}
@@ -0,0 +1,62 @@
+package com.poly.crawler.manager;
+
+import com.poly.crawler.properties.CrawlerProperties;
+import com.poly.crawler.util.TokenBucket;
+import com.poly.crawler.util.UrlUtils;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 按 host 限速的请求调度器，每个 host 一个令牌桶，不同 host 之间互不影响
+ * <p>配置项：{@code crawler.rate-limit.*}
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Component
+@Slf4j
+public class HostRateLimitManager {
+
+    @Resource
+    private CrawlerProperties crawlerProperties;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * 为 url 对应的 host 预占一个请求许可
+     *
+     * @return 需要延迟的纳秒数，0 表示可立即请求
+     */
+    public long reserve(String url) {
+        CrawlerProperties.RateLimit rateLimit = crawlerProperties.getRateLimit();
+        if (!rateLimit.isEnabled()) {
+            return 0;
+        }
+        String host = UrlUtils.getHost(url);
+        return buckets.computeIfAbsent(host, this::createBucket).reserve();
+    }
+
+    /**
+     * 当前各 host 的限速配置（每秒请求数）
+     */
+    public Map<String, Double> getRates() {
+        Map<String, Double> rates = new HashMap<>(buckets.size());
+        buckets.forEach((host, bucket) -> rates.put(host, bucket.getPermitsPerSecond()));
+        return rates;
+    }
+
+    private TokenBucket createBucket(String host) {
+        CrawlerProperties.RateLimit rateLimit = crawlerProperties.getRateLimit();
+        Double permitsPerSecond = rateLimit.getHosts().get(host);
+        if (permitsPerSecond == null) {
+            permitsPerSecond = rateLimit.getPermitsPerSecond();
+        }
+        log.info("Creating rate limiter for host: [{}], permitsPerSecond: {}", host, permitsPerSecond);
+        return new TokenBucket(permitsPerSecond, rateLimit.getBurst());
+    }
+}
@@ -0,0 +1,429 @@
+package com.poly.crawler.manager;
+
+import com.poly.crawler.model.CachedResponse;
+import com.poly.crawler.model.HttpBody;
+import com.poly.crawler.model.HttpCacheStats;
+import com.poly.crawler.properties.CrawlerProperties;
+import com.poly.crawler.util.UrlUtils;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import javax.annotation.Resource;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+/**
+ * 磁盘 HTTP 缓存：保存响应体及 ETag / Last-Modified，重新爬取时发送条件请求，304 时直接使用缓存的响应体
+ * <p>每个 url（规范化后）一个文件，文件名为 url 的 MD5，按前两位分目录。响应体按传输时的压缩格式保存（连同 Content-Encoding），
+ * 写入缓存不需要解压；写入先写临时文件再原子替换，进程崩溃不会留下半个文件；304 时只原地刷新文件头中的缓存时间。
+ * 写入、刷新在 crawlerCacheExecutor 中进行，不占用 I/O 线程。
+ * <p>带 {@code Cache-Control: no-store / private} 的响应不缓存。定时清理超过 maxAgeDays 的文件，
+ * 目录总大小超过 maxBytes 时按最近使用时间（文件修改时间，304 刷新时更新）淘汰最旧的文件。
+ * <p>配置项：{@code crawler.http-cache.*}
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Component
+@Slf4j
+public class HttpCacheManager implements InitializingBean, DisposableBean {
+
+    /**
+     * 文件格式版本，格式变化时旧文件视为未命中
+     */
+    private static final int FORMAT_VERSION = 3;
+
+    /**
+     * 写入时崩溃留下的临时文件，超过此时间后清理
+     */
+    private static final long TEMP_FILE_MAX_AGE_MS = TimeUnit.HOURS.toMillis(1);
+
+    @Resource
+    private CrawlerProperties crawlerProperties;
+
+    @Resource(name = "crawlerCacheExecutor")
+    private ThreadPoolTaskExecutor crawlerCacheExecutor;
+
+    @Resource(name = "crawlerScheduledExecutor")
+    private ScheduledExecutorService crawlerScheduledExecutor;
+
+    private final LongAdder revalidateCount = new LongAdder();
+    private final LongAdder notModifiedCount = new LongAdder();
+    private final LongAdder storedCount = new LongAdder();
+    private final LongAdder savedBytes = new LongAdder();
+    private final LongAdder evictedCount = new LongAdder();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private volatile long diskBytes;
+
+    private ScheduledFuture<?> sweepTask;
+
+    @Override
+    public void afterPropertiesSet() {
+        CrawlerProperties.HttpCache httpCache = crawlerProperties.getHttpCache();
+        long interval = httpCache.getSweepIntervalMs();
+        if (httpCache.isEnabled() && interval > 0) {
+            // 调度线程只负责投递，遍历目录在 crawlerCacheExecutor 中进行
+            sweepTask = crawlerScheduledExecutor.scheduleWithFixedDelay(() -> {
+                try {
+                    crawlerCacheExecutor.execute(this::sweep);
+                } catch (RejectedExecutionException e) {
+                    log.debug("crawlerCacheExecutor saturated, skipping http cache sweep");
+                }
+            }, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (sweepTask != null) {
+            sweepTask.cancel(false);
+        }
+    }
+
+    /**
+     * 读取 url 的缓存，并给请求加上 If-None-Match / If-Modified-Since
+     *
+     * @return 缓存条目，未开启、未命中或已过期时返回 null
+     */
+    public CachedResponse prepare(String url, HttpUriRequest request) {
+        if (!crawlerProperties.getHttpCache().isEnabled()) {
+            return null;
+        }
+        CachedResponse cached = load(url);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.getEtag() != null) {
+            request.setHeader(HttpHeaders.IF_NONE_MATCH, cached.getEtag());
+        }
+        if (cached.getLastModified() != null) {
+            request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, cached.getLastModified());
+        }
+        revalidateCount.increment();
+        return cached;
+    }
+
+    /**
+     * 在 crawlerCacheExecutor 中读取缓存并设置条件请求头，调用线程不读磁盘
+     * <p>线程池已满或读取失败时不发送条件请求（结果为 null），返回的 future 不会异常完成。返回的 future 完成前不应发送请求。
+     *
+     * @see #prepare(String, HttpUriRequest)
+     */
+    public CompletableFuture<CachedResponse> prepareAsync(String url, HttpUriRequest request) {
+        if (!crawlerProperties.getHttpCache().isEnabled()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> prepare(url, request), crawlerCacheExecutor)
+                    .exceptionally(throwable -> {
+                        log.warn("Failed to prepare http cache, url: {}, error: {}", url, throwable.getMessage());
+                        return null;
+                    });
+        } catch (RejectedExecutionException e) {
+            log.debug("crawlerCacheExecutor saturated, skipping http cache, url: {}", url);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * 304 响应：返回缓存的响应体（按 {@link CachedResponse#getContentEncoding()} 解压），
+     * 并在后台刷新缓存时间（只改写文件头中的时间戳，不重写响应体）
+     */
+    public byte[] notModified(String url, CachedResponse cached) {
+        notModifiedCount.increment();
+        savedBytes.add(cached.getBody().length);
+        long storedAt = System.currentTimeMillis();
+        cached.setStoredAt(storedAt);
+        this.runQuietly(url, () -> touch(url, storedAt));
+        return cached.getBody();
+    }
+
+    /**
+     * 响应是否会被写入缓存：开启缓存、带 ETag 或 Last-Modified，且没有 Cache-Control: no-store / private
+     */
+    public boolean cacheable(HttpResponse response) {
+        return crawlerProperties.getHttpCache().isEnabled()
+                && (headerValue(response, HttpHeaders.ETAG) != null
+                || headerValue(response, HttpHeaders.LAST_MODIFIED) != null)
+                && !noStore(response);
+    }
+
+    /**
+     * 200 响应：带校验信息时在后台写入缓存，保存传输时的（压缩）字节，不解压
+     *
+     * @param body 未解压的响应体，写入期间不能修改
+     */
+    public void store(String url, HttpResponse response, HttpBody body) {
+        if (body == null || !cacheable(response)) {
+            return;
+        }
+        CachedResponse cached = CachedResponse.builder()
+                .etag(headerValue(response, HttpHeaders.ETAG))
+                .lastModified(headerValue(response, HttpHeaders.LAST_MODIFIED))
+                .contentType(body.getContentType())
+                .contentEncoding(body.getContentEncoding())
+                .storedAt(System.currentTimeMillis())
+                .body(body.getBytes())
+                .build();
+        this.runQuietly(url, () -> {
+            write(url, cached, body.getLength());
+            storedCount.increment();
+        });
+    }
+
+    public HttpCacheStats getStats() {
+        return HttpCacheStats.builder()
+                .revalidateCount(revalidateCount.sum())
+                .notModifiedCount(notModifiedCount.sum())
+                .storedCount(storedCount.sum())
+                .savedBytes(savedBytes.sum())
+                .evictedCount(evictedCount.sum())
+                .diskBytes(diskBytes)
+                .build();
+    }
+
+    /**
+     * 清理缓存目录：删除过期文件和遗留的临时文件，总大小超过 maxBytes 时从最久未使用的文件开始删除
+     */
+    private void sweep() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            CrawlerProperties.HttpCache httpCache = crawlerProperties.getHttpCache();
+            Path dir = Paths.get(httpCache.getDir());
+            if (!Files.isDirectory(dir)) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            long maxAgeMs = TimeUnit.DAYS.toMillis(httpCache.getMaxAgeDays());
+            List<CacheFile> files = new ArrayList<>();
+            long total = 0;
+            int evicted = 0;
+            try (Stream<Path> paths = Files.walk(dir, 2)) {
+                for (Path path : (Iterable<Path>) paths::iterator) {
+                    BasicFileAttributes attributes;
+                    try {
+                        attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                    } catch (IOException e) {
+                        // 遍历期间被删除或替换
+                        continue;
+                    }
+                    if (!attributes.isRegularFile()) {
+                        continue;
+                    }
+                    long age = now - attributes.lastModifiedTime().toMillis();
+                    boolean temp = path.getFileName().toString().endsWith(".tmp");
+                    if ((temp && age > TEMP_FILE_MAX_AGE_MS) || (!temp && maxAgeMs > 0 && age > maxAgeMs)) {
+                        if (deleteQuietly(path)) {
+                            evicted++;
+                        }
+                        continue;
+                    }
+                    total += attributes.size();
+                    if (!temp) {
+                        files.add(new CacheFile(path, attributes.size(), attributes.lastModifiedTime().toMillis()));
+                    }
+                }
+            }
+            long maxBytes = httpCache.getMaxBytes();
+            if (maxBytes > 0 && total > maxBytes) {
+                files.sort(Comparator.comparingLong(file -> file.lastModified));
+                for (CacheFile file : files) {
+                    if (total <= maxBytes) {
+                        break;
+                    }
+                    if (deleteQuietly(file.path)) {
+                        total -= file.size;
+                        evicted++;
+                    }
+                }
+            }
+            diskBytes = total;
+            evictedCount.add(evicted);
+            if (evicted > 0) {
+                log.info("Http cache swept, {} files evicted, {} bytes remaining", evicted, total);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Failed to sweep http cache: {}", e.getMessage());
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private CachedResponse load(String url) {
+        Path path = pathOf(url);
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            CachedResponse cached = CachedResponse.builder()
+                    .etag(emptyToNull(in.readUTF()))
+                    .lastModified(emptyToNull(in.readUTF()))
+                    .contentType(emptyToNull(in.readUTF()))
+                    .contentEncoding(emptyToNull(in.readUTF()))
+                    .storedAt(in.readLong())
+                    .body(readAll(in))
+                    .build();
+            long maxAgeMs = TimeUnit.DAYS.toMillis(crawlerProperties.getHttpCache().getMaxAgeDays());
+            if (maxAgeMs > 0 && System.currentTimeMillis() - cached.getStoredAt() > maxAgeMs) {
+                Files.deleteIfExists(path);
+                return null;
+            }
+            return cached;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("Failed to read http cache, url: {}, error: {}", url, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @param length 响应体的有效字节数
+     */
+    private void write(String url, CachedResponse cached, int length) {
+        Path path = pathOf(url);
+        Path temp = null;
+        try {
+            Files.createDirectories(path.getParent());
+            temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            try (OutputStream file = Files.newOutputStream(temp);
+                    DataOutputStream out = new DataOutputStream(file)) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(cached.getEtag() == null ? "" : cached.getEtag());
+                out.writeUTF(cached.getLastModified() == null ? "" : cached.getLastModified());
+                out.writeUTF(cached.getContentType() == null ? "" : cached.getContentType());
+                out.writeUTF(cached.getContentEncoding() == null ? "" : cached.getContentEncoding());
+                out.writeLong(cached.getStoredAt());
+                out.write(cached.getBody(), 0, length);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write http cache, url: {}, error: {}", url, e.getMessage());
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // 临时文件清理失败不影响请求
+                }
+            }
+        }
+    }
+
+    /**
+     * 原地改写缓存时间：跳过文件头中的校验信息，覆盖 storedAt 的 8 个字节
+     */
+    private void touch(String url, long storedAt) {
+        try (RandomAccessFile file = new RandomAccessFile(pathOf(url).toFile(), "rw")) {
+            if (file.readInt() != FORMAT_VERSION) {
+                return;
+            }
+            // etag、lastModified、contentType、contentEncoding
+            file.readUTF();
+            file.readUTF();
+            file.readUTF();
+            file.readUTF();
+            file.writeLong(storedAt);
+        } catch (IOException e) {
+            log.warn("Failed to refresh http cache, url: {}, error: {}", url, e.getMessage());
+        }
+    }
+
+    /**
+     * 在 crawlerCacheExecutor 中执行磁盘写入，线程池已满时跳过（缓存只是优化）
+     */
+    private void runQuietly(String url, Runnable task) {
+        try {
+            crawlerCacheExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.debug("crawlerCacheExecutor saturated, skipping http cache write, url: {}", url);
+        }
+    }
+
+    private Path pathOf(String url) {
+        String name = DigestUtils.md5DigestAsHex(UrlUtils.canonicalize(url).getBytes(StandardCharsets.UTF_8));
+        return Paths.get(crawlerProperties.getHttpCache().getDir(), name.substring(0, 2), name);
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static String headerValue(HttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        return header == null ? null : header.getValue();
+    }
+
+    private static boolean deleteQuietly(Path path) {
+        try {
+            return Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.debug("Failed to delete http cache file {}: {}", path, e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean noStore(HttpResponse response) {
+        for (Header header : response.getHeaders(HttpHeaders.CACHE_CONTROL)) {
+            for (HeaderElement element : header.getElements()) {
+                String name = element.getName();
+                if ("no-store".equalsIgnoreCase(name) || "private".equalsIgnoreCase(name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    @AllArgsConstructor
+    private static final class CacheFile {
+        private final Path path;
+        private final long size;
+        private final long lastModified;
+    }
+}
@@ -1,12 +1,16 @@
 package com.poly.crawler.manager;
 
 
+import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONObject;
 import com.poly.crawler.enums.RequestFormat;
 import com.poly.crawler.util.MapWrapper;
+import com.poly.crawler.util.UrlUtils;
 import java.io.File;
+import java.net.SocketTimeoutException;
 import java.util.ArrayList;
 import java.util.Map;
+import java.util.function.Supplier;
 import javax.annotation.Resource;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
@@ -20,6 +24,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -35,6 +41,12 @@ public class HttpManager {
     @Resource(name = "crawlerRestTemplate")
     private RestTemplate restTemplate;
 
+    @Resource
+    private AdaptiveConcurrencyManager adaptiveConcurrencyManager;
+
+    @Resource
+    private ResponseCacheManager responseCacheManager;
+
     /**
      * 发送GET请求
      *
@@ -44,7 +56,7 @@ public class HttpManager {
      * @return 响应对象
      */
     public <T> T get(String url, Class<T> responseType) {
-        ResponseEntity<T> response = restTemplate.getForEntity(url, responseType);
+        ResponseEntity<T> response = exchange(url, () -> restTemplate.getForEntity(url, responseType));
         response.getHeaders().forEach((key, values) -> {
             values.forEach(value -> {
                 System.out.println(key + ":" + value);
@@ -67,10 +79,33 @@ public class HttpManager {
             return get(url, responseType);
         }
         HttpEntity<String> entity = new HttpEntity<>("parameters", headers);
-        ResponseEntity<T> response = restTemplate.exchange(url, HttpMethod.GET, entity, responseType);
+        ResponseEntity<T> response = exchange(url, () -> restTemplate.exchange(url, HttpMethod.GET, entity, responseType));
         return response.getBody();
     }
 
+    /**
+     * 发送GET请求，响应体按 cacheTtlMs 缓存，缓存有效期内不走网络
+     * <p>缓存的是响应文本，非 String 类型由 fastjson 反序列化，每次返回新对象
+     *
+     * @param url          请求URL
+     * @param headers      请求头，参与缓存 key
+     * @param responseType 响应类型
+     * @param cacheTtlMs   缓存时间（毫秒），小于等于 0 表示不缓存
+     * @param <T>          响应类型泛型
+     * @return 响应对象
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String url, HttpHeaders headers, Class<T> responseType, long cacheTtlMs) {
+        if (cacheTtlMs <= 0) {
+            return get(url, headers, responseType);
+        }
+        String body = responseCacheManager.getOrLoad(UrlUtils.requestKey(url, headers), cacheTtlMs, () -> get(url, headers, String.class));
+        if (body == null || String.class.equals(responseType)) {
+            return (T) body;
+        }
+        return JSON.parseObject(body, responseType);
+    }
+
     /**
      * 发送POST请求，JSON格式
      *
@@ -85,7 +120,7 @@ public class HttpManager {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         HttpEntity<R> entity = new HttpEntity<>(request, headers);
-        ResponseEntity<T> response = restTemplate.exchange(url, HttpMethod.POST, entity, responseType);
+        ResponseEntity<T> response = exchange(url, () -> restTemplate.exchange(url, HttpMethod.POST, entity, responseType));
         return response.getBody();
     }
 
@@ -103,7 +138,7 @@ public class HttpManager {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_XML);
         HttpEntity<R> entity = new HttpEntity<>(request, headers);
-        ResponseEntity<T> response = restTemplate.exchange(url, HttpMethod.POST, entity, responseType);
+        ResponseEntity<T> response = exchange(url, () -> restTemplate.exchange(url, HttpMethod.POST, entity, responseType));
         return response.getBody();
     }
 
@@ -120,7 +155,7 @@ public class HttpManager {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
         HttpEntity<MultiValueMap<String, String>> entity = new HttpEntity<>(formData, headers);
-        ResponseEntity<T> response = restTemplate.exchange(url, HttpMethod.POST, entity, responseType);
+        ResponseEntity<T> response = exchange(url, () -> restTemplate.exchange(url, HttpMethod.POST, entity, responseType));
         return response.getBody();
     }
 
@@ -137,7 +172,7 @@ public class HttpManager {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.TEXT_PLAIN);
         HttpEntity<String> entity = new HttpEntity<>(text, headers);
-        ResponseEntity<T> response = restTemplate.exchange(url, HttpMethod.POST, entity, responseType);
+        ResponseEntity<T> response = exchange(url, () -> restTemplate.exchange(url, HttpMethod.POST, entity, responseType));
         return response.getBody();
     }
 
@@ -154,7 +189,7 @@ public class HttpManager {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.MULTIPART_FORM_DATA);
         HttpEntity<MultiValueMap<String, Object>> entity = new HttpEntity<>(multipartData, headers);
-        ResponseEntity<T> response = restTemplate.exchange(url, HttpMethod.POST, entity, responseType);
+        ResponseEntity<T> response = exchange(url, () -> restTemplate.exchange(url, HttpMethod.POST, entity, responseType));
         return response.getBody();
     }
 
@@ -188,6 +223,35 @@ public class HttpManager {
         }
     }
 
+    /**
+     * 在 host 的自适应并发许可内执行请求，按结果调整并发上限
+     */
+    private <T> ResponseEntity<T> exchange(String url, Supplier<ResponseEntity<T>> call) {
+        AdaptiveConcurrencyManager.Permit permit = adaptiveConcurrencyManager.acquire(url, 0);
+        try {
+            ResponseEntity<T> response = call.get();
+            permit.onSuccess();
+            return response;
+        } catch (HttpStatusCodeException e) {
+            if (AdaptiveConcurrencyManager.isOverloaded(e.getRawStatusCode())) {
+                permit.onDropped();
+            } else {
+                permit.onIgnore();
+            }
+            throw e;
+        } catch (ResourceAccessException e) {
+            if (e.getCause() instanceof SocketTimeoutException) {
+                permit.onDropped();
+            } else {
+                permit.onIgnore();
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            permit.onIgnore();
+            throw e;
+        }
+    }
+
     private JSONObject convertToJsonObject(Map<String, Object> request) {
         // 将 Map 转换为 JSONObject
         return new JSONObject(request);
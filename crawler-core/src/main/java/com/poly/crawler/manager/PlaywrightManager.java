@@ -6,6 +6,8 @@ import com.microsoft.playwright.BrowserType.LaunchOptions;
 import com.microsoft.playwright.Page;
 import com.microsoft.playwright.Playwright;
 import com.microsoft.playwright.Playwright.CreateOptions;
+import com.microsoft.playwright.Response;
+import com.microsoft.playwright.TimeoutError;
 import com.poly.crawler.exception.CrawlerException;
 import com.poly.crawler.properties.BrowserProperties;
 import java.nio.file.Paths;
@@ -15,7 +17,9 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
@@ -27,6 +31,7 @@ import org.springframework.stereotype.Component;
  * - 启动和关闭浏览器实例
  * - 创建和关闭浏览器上下文
  * - 提供创建新页面的方法
+ * - 页面导航受按 host 的自适应并发控制
  *
  * @author guojund
  * @version 2024/12/30
@@ -44,10 +49,12 @@ public class PlaywrightManager implements InitializingBean, DisposableBean {
     private final int maxCount;
     private final BrowserProperties config;
     private final Semaphore semaphore;
+    private final AdaptiveConcurrencyManager adaptiveConcurrencyManager;
     private int userAgentIndex = 0; // 用于跟踪当前 UserAgent 的索引
 
-    public PlaywrightManager(BrowserProperties config) {
+    public PlaywrightManager(BrowserProperties config, AdaptiveConcurrencyManager adaptiveConcurrencyManager) {
         this.config = config;
+        this.adaptiveConcurrencyManager = adaptiveConcurrencyManager;
         this.browserContexts = new CopyOnWriteArrayList<>();
         this.browserMap = new ConcurrentHashMap<>();
         this.playwrightMap = new ConcurrentHashMap<>();
@@ -98,17 +105,83 @@ public class PlaywrightManager implements InitializingBean, DisposableBean {
     }
 
     public Page getPage() {
+        return getPage(0);
+    }
+
+    /**
+     * 获取页面，页面的默认超时时间不超过截止时间，超时后页面操作会抛出 TimeoutError
+     *
+     * @param deadline 截止时间（毫秒时间戳），0 表示不限制
+     */
+    public Page getPage(long deadline) {
         try {
-            semaphore.acquire(); // 获取信号量，控制最大页面数量
+            // 获取信号量，控制最大页面数量
+            if (deadline <= 0) {
+                semaphore.acquire();
+            } else if (!semaphore.tryAcquire(deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS)) {
+                throw new CrawlerException("Deadline exceeded while waiting for page");
+            }
         } catch (InterruptedException e) {
             log.error("Error acquiring semaphore: {}", e.getMessage());
+            Thread.currentThread().interrupt();
             throw new CrawlerException(e);
         }
-        return createPage();
+        Page page = createPage();
+        applyDeadline(page, deadline);
+        return page;
+    }
+
+    /**
+     * 按截止时间设置页面的默认超时时间
+     */
+    public void applyDeadline(Page page, long deadline) {
+        if (page == null || deadline <= 0) {
+            return;
+        }
+        double remaining = Math.max(1, deadline - System.currentTimeMillis());
+        page.setDefaultTimeout(remaining);
+        page.setDefaultNavigationTimeout(remaining);
+    }
+
+    /**
+     * 在 host 的自适应并发许可内打开 url，导航超时或响应 429、503 时收缩该 host 的并发
+     */
+    public Response navigate(Page page, String url, long deadline) {
+        return load(url, deadline, () -> page.navigate(url));
+    }
+
+    /**
+     * 在 host 的自适应并发许可内重新加载页面
+     */
+    public Response reload(Page page, String url, long deadline) {
+        return load(url, deadline, page::reload);
+    }
+
+    private Response load(String url, long deadline, Supplier<Response> navigation) {
+        AdaptiveConcurrencyManager.Permit permit = adaptiveConcurrencyManager.acquire(url, deadline);
+        try {
+            Response response = navigation.get();
+            if (response != null && AdaptiveConcurrencyManager.isOverloaded(response.status())) {
+                permit.onDropped();
+            } else {
+                permit.onSuccess();
+            }
+            return response;
+        } catch (TimeoutError e) {
+            permit.onDropped();
+            throw e;
+        } catch (RuntimeException e) {
+            permit.onIgnore();
+            throw e;
+        }
     }
 
     public void returnPage(Page page) {
-        if (page != null && !page.isClosed()) {
+        if (page == null) {
+            // 未获取到页面（等待超时、被中断），没有占用信号量
+            return;
+        }
+        if (!page.isClosed()) {
             page.close();
         }
         semaphore.release(); // 释放信号量
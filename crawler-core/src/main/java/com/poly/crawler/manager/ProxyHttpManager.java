@@ -1,30 +1,54 @@
 package com.poly.crawler.manager;
 
+import com.poly.crawler.enums.RouteType;
 import com.poly.crawler.exception.CrawlerException;
 import com.poly.crawler.exception.CrawlerRetryException;
+import com.poly.crawler.model.CachedResponse;
+import com.poly.crawler.model.HttpBody;
+import com.poly.crawler.model.HttpPoolStats;
 import com.poly.crawler.properties.BrowserProperties;
 import com.poly.crawler.properties.CrawlerProperties;
+import com.poly.crawler.util.CharsetUtils;
+import com.poly.crawler.util.ProxyEndpoint;
+import com.poly.crawler.util.UrlUtils;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.net.URLEncoder;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.Resource;
-import javax.net.ssl.SSLHandshakeException;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.http.auth.AuthState;
-import org.apache.http.auth.ChallengeState;
-import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.ContentTooLongException;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
 import org.apache.http.client.config.RequestConfig;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.methods.RequestBuilder;
 import org.apache.http.client.protocol.HttpClientContext;
-import org.apache.http.impl.auth.BasicScheme;
-import org.apache.http.impl.client.HttpClientBuilder;
-import org.apache.http.util.EntityUtils;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.nio.protocol.AbstractAsyncResponseConsumer;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
 import org.springframework.stereotype.Component;
 
 /**
@@ -42,62 +66,471 @@ public class ProxyHttpManager {
     @Resource
     private BrowserProperties config;
 
+    private static final String ACCEPT_ENCODING = "gzip, deflate, br";
+
     private int userAgentIndex = 0; // 用于跟踪当前 UserAgent 的索引
 
     @Resource(name = "crawlerRequestConfig")
     private RequestConfig requestConfig;
 
+    @Resource(name = "crawlerScheduledExecutor")
+    private ScheduledExecutorService crawlerScheduledExecutor;
+
+    @Resource
+    private AdaptiveConcurrencyManager adaptiveConcurrencyManager;
+
     @Resource
-    private ThreadPoolTaskExecutor crawlerTaskExecutor;
+    private ResponseCacheManager responseCacheManager;
 
+    @Resource
+    private HttpCacheManager httpCacheManager;
+
+    @Resource
+    private ProxyPoolManager proxyPoolManager;
+
+    @Resource
+    private RouteManager routeManager;
+
+    @Resource(name = "crawlerProxyHttpClient")
+    private CloseableHttpAsyncClient crawlerProxyHttpClient;
+
+    @Resource(name = "crawlerProxyConnectionManager")
+    private PoolingNHttpClientConnectionManager crawlerProxyConnectionManager;
 
     public String get(String url) {
-        CompletableFuture<String> future = CompletableFuture.supplyAsync(() -> {
+        return get(url, 0);
+    }
+
+    public String get(String url, long deadline) {
+        return get(url, deadline, 0);
+    }
+
+    /**
+     * 走代理发送 GET 请求
+     *
+     * @param url        请求地址
+     * @param deadline   截止时间（毫秒时间戳），0 表示只受 crawler.timeoutSeconds 限制；超时或被中断时立即中止请求并释放连接
+     * @param cacheTtlMs 响应缓存时间（毫秒），缓存有效期内不走网络，小于等于 0 表示不缓存
+     */
+    public String get(String url, long deadline, long cacheTtlMs) {
+        return await(url, getAsync(url, deadline, cacheTtlMs));
+    }
+
+    /**
+     * 走代理发送 GET 请求，返回解压后的完整响应体（不缓存），用于图片等二进制内容
+     *
+     * @param url      请求地址
+     * @param deadline 截止时间（毫秒时间戳），0 表示只受 crawler.timeoutSeconds 限制
+     */
+    public byte[] getBytes(String url, long deadline) {
+        return await(url, getBytesAsync(url, deadline));
+    }
+
+    /**
+     * 异步走代理发送 GET 请求，请求由 I/O 线程完成，调用线程不等待响应
+     * <p>超时、站点限流时以 {@link CrawlerRetryException} 异常完成；取消返回的 future 会中止请求并释放连接。
+     * 站点并发达到自适应上限时排队等待许可，调用线程不等待。
+     *
+     * @param url        请求地址
+     * @param deadline   截止时间（毫秒时间戳），0 表示只受 crawler.timeoutSeconds 限制
+     * @param cacheTtlMs 响应缓存时间（毫秒），小于等于 0 表示不缓存
+     */
+    public CompletableFuture<String> getAsync(String url, long deadline, long cacheTtlMs) {
+        // 只缓存 2xx，404、代理错误页等不在 TTL 内重复返回
+        return responseCacheManager.getOrLoadAsync(UrlUtils.requestKey(url, null), cacheTtlMs,
+                () -> getBodyAsync(url, deadline), HttpBody::isSuccessful,
+                body -> CharsetUtils.decode(toByteArray(url, body), body.getContentType()));
+    }
+
+    /**
+     * 异步走代理发送 GET 请求，返回原始响应体（不缓存）
+     *
+     * @see #getAsync(String, long, long)
+     */
+    public CompletableFuture<byte[]> getBytesAsync(String url, long deadline) {
+        return getBodyAsync(url, deadline).thenApply(body -> toByteArray(url, body));
+    }
+
+    /**
+     * 走代理发送 GET 请求，返回未解压的响应体（不缓存）
+     *
+     * @see #getBodyAsync(String, long)
+     */
+    public HttpBody getBody(String url, long deadline) {
+        return await(url, getBodyAsync(url, deadline));
+    }
+
+    /**
+     * 走代理发送 GET 请求，响应体上限单独指定，用于 sitemap 等允许超过 crawler.http.maxBodyBytes 的内容
+     *
+     * @param maxBodyBytes 响应体（传输及解压后）字节数上限，0 表示不限制
+     * @see #getBodyAsync(String, long, long)
+     */
+    public HttpBody getBody(String url, long deadline, long maxBodyBytes) {
+        return await(url, getBodyAsync(url, deadline, maxBodyBytes));
+    }
+
+    /**
+     * 异步走代理发送 GET 请求，返回未解压的响应体（不缓存）
+     * <p>响应体按传输时的压缩格式保存，由调用方通过 {@link HttpBody#openStream()} 边解压边解析，
+     * 避免同时持有解压后的字节和字符串。响应体超过 crawler.http.maxBodyBytes 时中止下载。
+     *
+     * @see #getAsync(String, long, long)
+     */
+    public CompletableFuture<HttpBody> getBodyAsync(String url, long deadline) {
+        return getBodyAsync(url, deadline, crawlerProperties.getHttp().getMaxBodyBytes());
+    }
+
+    /**
+     * 异步走代理发送 GET 请求，返回未解压的响应体（不缓存），响应体超过 maxBodyBytes 时中止下载
+     *
+     * @param maxBodyBytes 响应体（传输及解压后）字节数上限，0 表示不限制
+     * @see #getBodyAsync(String, long)
+     */
+    public CompletableFuture<HttpBody> getBodyAsync(String url, long deadline, long maxBodyBytes) {
+        long timeoutMs = TimeUnit.SECONDS.toMillis(crawlerProperties.getTimeoutSeconds());
+        if (deadline > 0) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                throw new CrawlerException("请求已超过截止时间，请求url：" + url);
+            }
+            timeoutMs = Math.min(timeoutMs, remaining);
+        }
+
+        // 按路由规则直连或走代理；走代理池时在发送前按健康分选择代理，代理池关闭时走 crawler.proxy
+        RouteManager.Route route = routeManager.route(UrlUtils.getHost(url), RouteType.POOL);
+        RequestConfig.Builder config;
+        HttpRequestBase httpUriRequest;
+        try {
+            // 读超时不超过剩余时间
+            int socketTimeout = requestConfig.getSocketTimeout();
+            if (socketTimeout <= 0 || socketTimeout > timeoutMs) {
+                socketTimeout = (int) timeoutMs;
+            }
+            config = RequestConfig.copy(requestConfig).setSocketTimeout(socketTimeout);
+            if (route.getType() == RouteType.DIRECT) {
+                config.setProxy(null);
+            } else if (route.getProxy() != null) {
+                config.setProxy(route.getProxy().getHost());
+            }
+            RequestBuilder requestBuilder = RequestBuilder.get().setUri(encodeUrl(url));
+            requestBuilder.setConfig(config.build());
+            httpUriRequest = (HttpRequestBase) requestBuilder.build();
+        } catch (Exception e) {
+            log.error("ProxyHttpManager 构建get请求异常，请求url：{}，异常信息：", url, e);
+            throw new CrawlerException(e.getMessage());
+        }
+        httpUriRequest.addHeader("Referer", "https://www.google.com/");
+        httpUriRequest.addHeader("User-Agent", getRandomUserAgent());
+        // 压缩传输，节省代理流量
+        httpUriRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, ACCEPT_ENCODING);
+        CompletableFuture<HttpBody> result = new CompletableFuture<>();
+        AtomicReference<AdaptiveConcurrencyManager.Permit> acquired = new AtomicReference<>();
+        AtomicReference<ProxyPoolManager.Lease> leased = new AtomicReference<>();
+        AtomicReference<Future<HttpBody>> request = new AtomicReference<>();
+
+        // 超时中止请求，释放连接；等待许可、读取缓存的时间也计入超时
+        ScheduledFuture<?> timeout = crawlerScheduledExecutor.schedule(() -> {
+            if (result.completeExceptionally(new CrawlerRetryException("请求超时"))) {
+                log.error("请求超时，请求url：{}", url);
+                Future<HttpBody> sent = request.get();
+                if (sent != null) {
+                    // 超时多为目标站点响应慢，不计入代理健康；连接代理超时由 failed 回调处理
+                    acquired.get().onDropped();
+                    leased.get().onIgnore();
+                    sent.cancel(true);
+                }
+            }
+        }, timeoutMs, TimeUnit.MILLISECONDS);
+
+        // 有磁盘缓存时发送条件请求；读取缓存、等待并发许可都不占用调用线程，两者完成后再发送
+        CompletableFuture<CachedResponse> cached = httpCacheManager.prepareAsync(url, httpUriRequest);
+        CompletableFuture<AdaptiveConcurrencyManager.Permit> permit = adaptiveConcurrencyManager.acquireAsync(url);
+        result.whenComplete((body, throwable) -> {
+            timeout.cancel(false);
+            // 仍在排队时放弃等待许可
+            permit.cancel(false);
+            Future<HttpBody> sent = request.get();
+            if (result.isCancelled() && sent != null) {
+                acquired.get().onIgnore();
+                leased.get().onIgnore();
+                sent.cancel(true);
+            }
+        });
+        permit.thenAcceptBoth(cached, (granted, cachedResponse) -> {
+            if (result.isDone()) {
+                granted.onIgnore();
+                return;
+            }
+            acquired.set(granted);
             try {
-                RequestBuilder requestBuilder = RequestBuilder.get().setUri(encodeUrl(url));
-                requestBuilder.setConfig(requestConfig);
-                HttpUriRequest httpUriRequest = requestBuilder.build();
-                httpUriRequest.addHeader("Referer", "https://www.google.com/");
-                httpUriRequest.addHeader("User-Agent", getRandomUserAgent());
-                httpUriRequest.addHeader("Accept-Encoding", null);
-                HttpClientContext httpContext = HttpClientContext.create();
-                AuthState authState = new AuthState();
-                authState.update(new BasicScheme(ChallengeState.PROXY),
-                        new UsernamePasswordCredentials(crawlerProperties.getProxy().getUserName(),
-                                crawlerProperties.getProxy().getPassword()));
-                httpContext.setAttribute(HttpClientContext.PROXY_AUTH_STATE, authState);
-
-                HttpClientBuilder httpClientBuilder = HttpClientBuilder.create();
-
-                try (CloseableHttpResponse response = httpClientBuilder.build().execute(httpUriRequest, httpContext)) {
-                    byte[] bytes = EntityUtils.toByteArray(response.getEntity());
-                    return new String(bytes);
+                request.set(this.execute(url, httpUriRequest, config, route, granted, cachedResponse, maxBodyBytes,
+                        result, leased));
+            } catch (CrawlerRetryException e) {
+                // 代理池没有可用代理
+                granted.onIgnore();
+                result.completeExceptionally(e);
+                return;
+            } catch (RuntimeException e) {
+                granted.onIgnore();
+                if (leased.get() != null) {
+                    leased.get().onIgnore();
                 }
-            } catch (SSLHandshakeException e) {
-                log.error("异常重试", e);
-                throw new CrawlerRetryException(e.getMessage());
-            } catch (Exception e) {
                 log.error("ProxyHttpManager 执行get请求异常，请求url：{}，异常信息：", url, e);
-                throw new CrawlerException(e.getMessage());
+                result.completeExceptionally(new CrawlerException(e.getMessage()));
+                return;
+            }
+            if (result.isDone()) {
+                // 发送的同时已超时或被取消
+                request.get().cancel(true);
             }
-        },crawlerTaskExecutor);
+        });
+        return result;
+    }
+
+    /**
+     * 选择代理并发送请求，由 I/O 线程处理响应并完成 result
+     * <p>代理在发送前才选择，等待缓存读取、并发许可的时间不计入代理的延迟和在途请求数。
+     */
+    private Future<HttpBody> execute(String url, HttpRequestBase httpUriRequest, RequestConfig.Builder config,
+            RouteManager.Route route, AdaptiveConcurrencyManager.Permit permit, CachedResponse cached,
+            long maxBodyBytes, CompletableFuture<HttpBody> result, AtomicReference<ProxyPoolManager.Lease> leased) {
+        ProxyPoolManager.Lease lease = route.getType() == RouteType.POOL
+                ? proxyPoolManager.acquire() : proxyPoolManager.none();
+        leased.set(lease);
+        if (route.getType() != RouteType.DIRECT && route.getProxy() == null && lease.getProxy() != null) {
+            httpUriRequest.setConfig(config.setProxy(lease.getProxy()).build());
+        }
+        BoundedResponseConsumer consumer = new BoundedResponseConsumer(maxBodyBytes);
+        return crawlerProxyHttpClient.execute(HttpAsyncMethods.create(httpUriRequest), consumer,
+                this.httpContext(route, lease),
+                new FutureCallback<HttpBody>() {
+                    @Override
+                    public void completed(HttpBody body) {
+                        int statusCode = consumer.response.getStatusLine().getStatusCode();
+                        if (lease.onResponse(statusCode, consumer.receivedNanos)) {
+                            // 代理被封禁，重试时换一个代理；状态码同时表示站点过载时收缩并发
+                            if (AdaptiveConcurrencyManager.isOverloaded(statusCode)) {
+                                permit.onDropped();
+                            } else {
+                                permit.onIgnore();
+                            }
+                            result.completeExceptionally(new CrawlerRetryException("代理被封禁，状态码：" + statusCode));
+                            return;
+                        }
+                        try {
+                            result.complete(handleResponse(url, consumer.response, body, cached, permit,
+                                    maxBodyBytes));
+                        } catch (RuntimeException e) {
+                            result.completeExceptionally(e);
+                        }
+                    }
+
+                    @Override
+                    public void failed(Exception e) {
+                        permit.onIgnore();
+                        // 只有连接代理失败计入代理健康，目标站点的连接、读取异常与代理无关
+                        if (ProxyPoolManager.isProxyFailure(e)) {
+                            lease.onFailure();
+                        } else {
+                            lease.onIgnore();
+                        }
+                        if (e instanceof IOException && !(e instanceof ContentTooLongException)) {
+                            // 握手失败、连接被拒绝或重置等传输异常可重试，也计入 host 熔断
+                            log.error("异常重试", e);
+                            result.completeExceptionally(new CrawlerRetryException(e.getMessage()));
+                            return;
+                        }
+                        log.error("ProxyHttpManager 执行get请求异常，请求url：{}，异常信息：", url, e);
+                        result.completeExceptionally(new CrawlerException(e.getMessage()));
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        permit.onIgnore();
+                        lease.onIgnore();
+                        result.cancel(false);
+                    }
+                });
+    }
 
+    /**
+     * 路由对应的代理认证上下文
+     */
+    private HttpClientContext httpContext(RouteManager.Route route, ProxyPoolManager.Lease lease) {
+        if (route.getType() == RouteType.DIRECT) {
+            return HttpClientContext.create();
+        }
+        if (route.getProxy() != null) {
+            return route.getProxy().httpContext();
+        }
+        return lease.getProxy() != null ? lease.httpContext() : this.proxyContext();
+    }
+
+    /**
+     * crawler.proxy 的认证上下文
+     */
+    private HttpClientContext proxyContext() {
+        CrawlerProperties.Proxy proxy = crawlerProperties.getProxy();
+        if (proxy == null) {
+            return HttpClientContext.create();
+        }
+        return ProxyEndpoint.httpContext(requestConfig.getProxy(), proxy.getUserName(), proxy.getPassword());
+    }
+
+    private HttpBody handleResponse(String url, HttpResponse response, HttpBody body, CachedResponse cached,
+            AdaptiveConcurrencyManager.Permit permit, long maxBytes) {
+        int statusCode = response.getStatusLine().getStatusCode();
+        if (AdaptiveConcurrencyManager.isOverloaded(statusCode)) {
+            permit.onDropped();
+            throw new CrawlerRetryException("站点限流，状态码：" + statusCode);
+        }
+        if (statusCode >= HttpStatus.SC_INTERNAL_SERVER_ERROR) {
+            permit.onIgnore();
+            throw new CrawlerRetryException("站点异常，状态码：" + statusCode);
+        }
+        permit.onSuccess();
+        if (cached != null && statusCode == HttpStatus.SC_NOT_MODIFIED) {
+            byte[] bytes = httpCacheManager.notModified(url, cached);
+            return new HttpBody(bytes, bytes.length, cached.getContentEncoding(), cached.getContentType(), maxBytes,
+                    HttpStatus.SC_OK);
+        }
+        // 磁盘缓存保存传输时的（压缩）字节，不解压
+        if (statusCode == HttpStatus.SC_OK) {
+            httpCacheManager.store(url, response, body);
+        }
+        return body;
+    }
+
+    private static byte[] toByteArray(String url, HttpBody body) {
         try {
-            return future.get(crawlerProperties.getTimeoutSeconds(), TimeUnit.SECONDS);
-        } catch (TimeoutException e) {
-            log.error("请求超时，请求url：{}", url, e);
-            future.cancel(true); // 取消任务并中断
-            throw new CrawlerRetryException("请求超时");
+            return body.toByteArray();
+        } catch (IOException e) {
+            log.error("ProxyHttpManager 解压响应异常，请求url：{}，异常信息：", url, e);
+            throw new CrawlerException(e.getMessage());
+        }
+    }
+
+    /**
+     * 同步等待异步请求，被中断时中止请求
+     */
+    private <T> T await(String url, CompletableFuture<T> future) {
+        try {
+            return future.get();
         } catch (ExecutionException e) {
+            if (e.getCause() instanceof CrawlerException || e.getCause() instanceof CrawlerRetryException) {
+                throw (RuntimeException) e.getCause();
+            }
             log.error("ProxyHttpManager 执行get请求异常，请求url：{}，异常信息：", url, e);
             throw new CrawlerException(e.getMessage());
+        } catch (CancellationException e) {
+            throw new CrawlerException("请求被取消");
         } catch (InterruptedException e) {
             log.error("请求被中断，请求url：{}", url, e);
+            future.cancel(true);
             Thread.currentThread().interrupt(); // 重新设置中断状态
             throw new CrawlerException("请求被中断");
         }
     }
 
+    /**
+     * 代理连接池统计：第一项为整个连接池，其余按路由
+     */
+    public List<HttpPoolStats> getPoolStats() {
+        List<HttpPoolStats> stats = new ArrayList<>();
+        stats.add(toStats("total", crawlerProxyConnectionManager.getTotalStats()));
+        for (HttpRoute route : crawlerProxyConnectionManager.getRoutes()) {
+            stats.add(toStats(route.toString(), crawlerProxyConnectionManager.getStats(route)));
+        }
+        return stats;
+    }
+
+    private static HttpPoolStats toStats(String route, PoolStats poolStats) {
+        return HttpPoolStats.builder()
+                .route(route)
+                .leased(poolStats.getLeased())
+                .available(poolStats.getAvailable())
+                .pending(poolStats.getPending())
+                .max(poolStats.getMax())
+                .build();
+    }
+
+    /**
+     * 限制大小的响应体读取：Content-Length 或已读字节超过上限时立即中止，不解压
+     */
+    private static final class BoundedResponseConsumer extends AbstractAsyncResponseConsumer<HttpBody> {
+
+        private final long maxBytes;
+        private volatile HttpResponse response;
+        private volatile long receivedNanos;
+        private ExposedOutputStream buffer;
+        private ByteBuffer chunk;
+
+        private BoundedResponseConsumer(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        protected void onResponseReceived(HttpResponse response) {
+            this.receivedNanos = System.nanoTime();
+            this.response = response;
+        }
+
+        @Override
+        protected void onEntityEnclosed(HttpEntity entity, ContentType contentType) throws IOException {
+            long length = entity.getContentLength();
+            if (maxBytes > 0 && length > maxBytes) {
+                throw new ContentTooLongException("响应体超过上限：" + maxBytes + " 字节，Content-Length：" + length);
+            }
+            buffer = new ExposedOutputStream(length > 0 && length < Integer.MAX_VALUE ? (int) length : 8192);
+            chunk = ByteBuffer.allocate(8192);
+        }
+
+        @Override
+        protected void onContentReceived(ContentDecoder decoder, IOControl ioControl) throws IOException {
+            int read;
+            while ((read = decoder.read(chunk)) > 0) {
+                buffer.write(chunk.array(), 0, read);
+                chunk.clear();
+                if (maxBytes > 0 && buffer.size() > maxBytes) {
+                    throw new ContentTooLongException("响应体超过上限：" + maxBytes + " 字节");
+                }
+            }
+        }
+
+        @Override
+        protected HttpBody buildResult(HttpContext context) {
+            if (buffer == null) {
+                return new HttpBody(new byte[0], 0, null, null, maxBytes, response.getStatusLine().getStatusCode());
+            }
+            Header encoding = response.getFirstHeader(HttpHeaders.CONTENT_ENCODING);
+            Header contentType = response.getFirstHeader(HttpHeaders.CONTENT_TYPE);
+            return new HttpBody(buffer.buf(), buffer.size(), encoding == null ? null : encoding.getValue(),
+                    contentType == null ? null : contentType.getValue(), maxBytes,
+                    response.getStatusLine().getStatusCode());
+        }
+
+        @Override
+        protected void releaseResources() {
+            buffer = null;
+            chunk = null;
+        }
+    }
+
+    /**
+     * 直接暴露内部数组，避免 toByteArray 再复制一份
+     */
+    private static final class ExposedOutputStream extends ByteArrayOutputStream {
+
+        private ExposedOutputStream(int size) {
+            super(size);
+        }
+
+        private byte[] buf() {
+            return buf;
+        }
+    }
+
     private String getRandomUserAgent() {
         if (config.getUserAgents() == null || config.getUserAgents().isEmpty()) {
             throw new IllegalStateException("UserAgent list is empty or not initialized.");
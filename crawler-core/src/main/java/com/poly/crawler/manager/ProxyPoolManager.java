@@ -0,0 +1,361 @@
+package com.poly.crawler.manager;
+
+import com.poly.crawler.exception.CrawlerRetryException;
+import com.poly.crawler.model.ProxyStats;
+import com.poly.crawler.properties.CrawlerProperties;
+import com.poly.crawler.util.ProxyEndpoint;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * 多代理池：按健康分为每个请求选择代理，异常代理隔离后由后台探测恢复
+ * <p>选择方式为随机取两个可用代理比较健康分（power of two choices），既偏向健康的代理，又不会让所有请求同时涌向同一个代理。
+ * <p>配置项：{@code crawler.proxy-pool.*}，关闭时 {@link #acquire()} 返回 null，请求走 crawler.proxy。
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Component
+@Slf4j
+public class ProxyPoolManager implements InitializingBean, DisposableBean {
+
+    @Resource
+    private CrawlerProperties crawlerProperties;
+
+    @Resource(name = "crawlerRequestConfig")
+    private RequestConfig requestConfig;
+
+    @Resource(name = "crawlerScheduledExecutor")
+    private ScheduledExecutorService crawlerScheduledExecutor;
+
+    @Resource(name = "crawlerProxyHttpClient")
+    private CloseableHttpAsyncClient crawlerProxyHttpClient;
+
+    private volatile List<ProxyEndpoint> endpoints = Collections.emptyList();
+
+    private volatile long fileModified;
+
+    /**
+     * 按配置原文索引已加载的代理，重新加载时凭证变化的代理会重建
+     */
+    private Map<String, ProxyEndpoint> loaded = new LinkedHashMap<>();
+
+    private ScheduledFuture<?> probeTask;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!this.isEnabled()) {
+            return;
+        }
+        this.reload();
+        if (endpoints.isEmpty()) {
+            log.warn("Proxy pool enabled but no endpoints configured");
+        }
+        long interval = crawlerProperties.getProxyPool().getProbeIntervalSeconds();
+        if (interval > 0) {
+            probeTask = crawlerScheduledExecutor.scheduleWithFixedDelay(this::probeAll, interval, interval,
+                    TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (probeTask != null) {
+            probeTask.cancel(false);
+        }
+    }
+
+    public boolean isEnabled() {
+        return crawlerProperties.getProxyPool().isEnabled();
+    }
+
+    /**
+     * 为一次请求选择代理，之后必须调用 Lease 的 onResponse / onFailure / onIgnore 之一
+     * <p>延迟从获取时开始计算并计入在途请求，应在即将发送请求时再调用，不要在排队等待之前获取。
+     *
+     * @return 代理池关闭时返回的 Lease 不指定代理
+     * @throws CrawlerRetryException 所有代理都在隔离中
+     */
+    public Lease acquire() {
+        if (!this.isEnabled()) {
+            return this.none();
+        }
+        ProxyEndpoint chosen = this.select();
+        if (chosen == null) {
+            throw new CrawlerRetryException("代理池没有可用代理");
+        }
+        chosen.onStart();
+        return new Lease(chosen);
+    }
+
+    /**
+     * 不使用代理池的 Lease，所有回调为空操作
+     */
+    public Lease none() {
+        return new Lease(null);
+    }
+
+    /**
+     * 按健康分选择代理，不计入在途请求，用于无法回报结果的同步客户端
+     *
+     * @return 代理池关闭或没有可用代理时返回 null
+     */
+    public ProxyEndpoint select() {
+        if (!this.isEnabled()) {
+            return null;
+        }
+        List<ProxyEndpoint> available = new ArrayList<>();
+        for (ProxyEndpoint endpoint : endpoints) {
+            if (endpoint.isAvailable()) {
+                available.add(endpoint);
+            }
+        }
+        if (available.isEmpty()) {
+            return null;
+        }
+        ProxyEndpoint chosen = available.get(ThreadLocalRandom.current().nextInt(available.size()));
+        if (available.size() > 1) {
+            ProxyEndpoint other = available.get(ThreadLocalRandom.current().nextInt(available.size()));
+            if (other.score() < chosen.score()) {
+                chosen = other;
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * 是否为代理本身的异常：解析代理地址失败、连接代理失败或超时
+     * <p>走代理时客户端只与代理建立连接，这些异常只可能来自代理；读超时、连接重置、TLS 握手失败等可能来自目标站点，不计入代理健康。
+     */
+    public static boolean isProxyFailure(Exception e) {
+        return e instanceof ConnectException || e instanceof ConnectTimeoutException
+                || e instanceof NoRouteToHostException || e instanceof UnknownHostException;
+    }
+
+    /**
+     * 当前各代理的健康统计
+     */
+    public List<ProxyStats> getStats() {
+        List<ProxyStats> stats = new ArrayList<>();
+        endpoints.forEach(endpoint -> stats.add(endpoint.stats()));
+        return stats;
+    }
+
+    /**
+     * 从配置列表和代理文件加载代理，已有代理保留健康状态
+     */
+    private synchronized void reload() {
+        CrawlerProperties.ProxyPool config = crawlerProperties.getProxyPool();
+        List<String> specs = new ArrayList<>(config.getEndpoints());
+        if (StringUtils.hasText(config.getFile())) {
+            Path path = Paths.get(config.getFile());
+            try {
+                fileModified = Files.getLastModifiedTime(path).toMillis();
+                for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                    String spec = line.trim();
+                    if (!spec.isEmpty() && !spec.startsWith("#")) {
+                        specs.add(spec);
+                    }
+                }
+            } catch (IOException e) {
+                log.error("Failed to read proxy file: {}", path, e);
+            }
+        }
+
+        Map<String, ProxyEndpoint> current = new LinkedHashMap<>();
+        for (int i = 0; i < specs.size(); i++) {
+            String spec = specs.get(i);
+            ProxyEndpoint endpoint = loaded.get(spec);
+            try {
+                current.putIfAbsent(spec, endpoint != null ? endpoint : this.create(spec));
+            } catch (IllegalArgumentException e) {
+                // 配置原文可能含有密码，不写入日志
+                log.error("Invalid proxy endpoint #{}, expected [userName:password@]host:port", i + 1);
+            }
+        }
+        loaded = current;
+        endpoints = Collections.unmodifiableList(new ArrayList<>(current.values()));
+        log.info("Proxy pool loaded, {} endpoints", endpoints.size());
+    }
+
+    /**
+     * 解析 [http://][userName:password@]host:port
+     *
+     * @throws IllegalArgumentException 格式错误
+     */
+    ProxyEndpoint create(String spec) {
+        URI uri = URI.create(spec.contains("://") ? spec : "http://" + spec);
+        if (uri.getHost() == null || uri.getPort() <= 0) {
+            throw new IllegalArgumentException("代理格式错误，应为 [userName:password@]host:port");
+        }
+        String userName = null;
+        String password = null;
+        String userInfo = uri.getUserInfo();
+        if (userInfo != null) {
+            int index = userInfo.indexOf(':');
+            userName = index < 0 ? userInfo : userInfo.substring(0, index);
+            password = index < 0 ? "" : userInfo.substring(index + 1);
+        }
+        CrawlerProperties.ProxyPool config = crawlerProperties.getProxyPool();
+        return new ProxyEndpoint(new HttpHost(uri.getHost(), uri.getPort(), uri.getScheme()), userName, password,
+                config.getEwmaAlpha(), config.getFailureThreshold(), config.getMaxErrorRate(),
+                TimeUnit.SECONDS.toMillis(config.getQuarantineSeconds()),
+                TimeUnit.SECONDS.toMillis(config.getMaxQuarantineSeconds()));
+    }
+
+    /**
+     * 代理文件有修改时重新加载，并探测隔离到期的代理
+     */
+    private void probeAll() {
+        try {
+            String file = crawlerProperties.getProxyPool().getFile();
+            if (StringUtils.hasText(file)) {
+                Path path = Paths.get(file);
+                if (Files.exists(path) && Files.getLastModifiedTime(path).toMillis() != fileModified) {
+                    this.reload();
+                }
+            }
+            for (ProxyEndpoint endpoint : endpoints) {
+                if (endpoint.tryStartProbe()) {
+                    this.probe(endpoint);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Proxy pool probe failed", e);
+        }
+    }
+
+    private void probe(ProxyEndpoint endpoint) {
+        CrawlerProperties.ProxyPool config = crawlerProperties.getProxyPool();
+        HttpGet request = new HttpGet(config.getProbeUrl());
+        request.setConfig(RequestConfig.copy(requestConfig)
+                .setProxy(endpoint.getHost())
+                .setConnectTimeout(config.getProbeTimeoutMs())
+                .setSocketTimeout(config.getProbeTimeoutMs())
+                .setConnectionRequestTimeout(config.getProbeTimeoutMs())
+                .build());
+        long start = System.currentTimeMillis();
+        crawlerProxyHttpClient.execute(request, endpoint.httpContext(), new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(HttpResponse response) {
+                int statusCode = response.getStatusLine().getStatusCode();
+                if (statusCode < 400 && !config.getBanStatusCodes().contains(statusCode)) {
+                    endpoint.onProbeSuccess(System.currentTimeMillis() - start);
+                    log.info("Proxy [{}] probe succeeded, back in rotation", endpoint.getKey());
+                } else {
+                    endpoint.onProbeFailure();
+                    log.warn("Proxy [{}] probe failed with status {}", endpoint.getKey(), statusCode);
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                endpoint.onProbeFailure();
+                log.warn("Proxy [{}] probe failed: {}", endpoint.getKey(), e.getMessage());
+            }
+
+            @Override
+            public void cancelled() {
+                endpoint.onProbeFailure();
+            }
+        });
+    }
+
+    /**
+     * 一次请求占用的代理，结果只记录一次
+     */
+    public final class Lease {
+
+        private final ProxyEndpoint endpoint;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Lease(ProxyEndpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        /**
+         * 选中的代理，代理池关闭时为 null
+         */
+        public HttpHost getProxy() {
+            return endpoint == null ? null : endpoint.getHost();
+        }
+
+        /**
+         * 选中代理的认证上下文
+         */
+        public HttpClientContext httpContext() {
+            return endpoint.httpContext();
+        }
+
+        /**
+         * 收到响应：封禁状态码立即隔离，其余记录延迟
+         *
+         * @param receivedNanos 收到响应头时的 System.nanoTime()
+         * @return 是否为封禁状态码，换一个代理重试可能成功
+         */
+        public boolean onResponse(int statusCode, long receivedNanos) {
+            if (endpoint == null || !released.compareAndSet(false, true)) {
+                return false;
+            }
+            if (crawlerProperties.getProxyPool().getBanStatusCodes().contains(statusCode)) {
+                if (endpoint.onBan()) {
+                    log.warn("Proxy [{}] banned with status {}, quarantined", endpoint.getKey(), statusCode);
+                }
+                return true;
+            }
+            endpoint.onSuccess(TimeUnit.NANOSECONDS.toMillis(receivedNanos - startNanos));
+            return false;
+        }
+
+        /**
+         * 连接代理失败等代理本身的异常，见 {@link #isProxyFailure(Exception)}
+         */
+        public void onFailure() {
+            if (endpoint != null && released.compareAndSet(false, true) && endpoint.onFailure()) {
+                log.warn("Proxy [{}] failing, quarantined, stats: {}", endpoint.getKey(), endpoint.stats());
+            }
+        }
+
+        /**
+         * 取消、目标站点超时等与代理无关的结束
+         */
+        public void onIgnore() {
+            if (endpoint != null && released.compareAndSet(false, true)) {
+                endpoint.onIgnore();
+            }
+        }
+    }
+}
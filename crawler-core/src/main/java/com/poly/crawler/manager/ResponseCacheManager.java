@@ -0,0 +1,183 @@
+package com.poly.crawler.manager;
+
+import com.poly.crawler.model.ResponseCacheStats;
+import com.poly.crawler.properties.CrawlerProperties;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import javax.annotation.Resource;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 内存响应缓存（LRU，按字节数限制容量，每个条目有独立的 TTL）
+ * <p>TTL 内重复请求同一个 key 直接返回缓存，不走网络。TTL 由调用方（处理器）决定，小于等于 0 表示不缓存。
+ * <p>配置项：{@code crawler.cache.*}
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Component
+@Slf4j
+public class ResponseCacheManager {
+
+    /**
+     * 每个条目的固定开销估算（对象头、引用、时间戳）
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+
+    @Resource
+    private CrawlerProperties crawlerProperties;
+
+    /**
+     * 访问顺序的 LinkedHashMap，头部为最久未访问的条目
+     */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weightBytes;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder expiredCount = new LongAdder();
+
+    /**
+     * 读取缓存，未命中时调用 loader 并按 ttlMs 缓存结果（null 结果不缓存）
+     *
+     * @param key    缓存 key
+     * @param ttlMs  缓存时间（毫秒），小于等于 0 表示不缓存
+     * @param loader 实际请求
+     */
+    public String getOrLoad(String key, long ttlMs, Supplier<String> loader) {
+        if (ttlMs <= 0 || !crawlerProperties.getCache().isEnabled()) {
+            return loader.get();
+        }
+        String cached = get(key);
+        if (cached != null) {
+            hitCount.increment();
+            return cached;
+        }
+        missCount.increment();
+        String body = loader.get();
+        put(key, body, ttlMs);
+        return body;
+    }
+
+    /**
+     * 异步读取缓存，未命中时调用 loader，完成后只有 cacheable 的响应才按 ttlMs 缓存
+     *
+     * @param cacheable 响应是否可缓存，如只缓存 2xx，错误页不应在整个 TTL 内被重复返回
+     * @param decoder   响应转为缓存的文本
+     * @see #getOrLoad(String, long, Supplier)
+     */
+    public <V> CompletableFuture<String> getOrLoadAsync(String key, long ttlMs,
+            Supplier<CompletableFuture<V>> loader, Predicate<V> cacheable, Function<V, String> decoder) {
+        if (ttlMs <= 0 || !crawlerProperties.getCache().isEnabled()) {
+            return loader.get().thenApply(decoder);
+        }
+        String cached = get(key);
+        if (cached != null) {
+            hitCount.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+        missCount.increment();
+        CompletableFuture<V> response = loader.get();
+        CompletableFuture<String> future = response.thenApply(value -> {
+            String body = decoder.apply(value);
+            if (cacheable.test(value)) {
+                put(key, body, ttlMs);
+            }
+            return body;
+        });
+        future.whenComplete((body, throwable) -> {
+            if (future.isCancelled()) {
+                response.cancel(true);
+            }
+        });
+        return future;
+    }
+
+    public synchronized void invalidate(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            weightBytes -= entry.weight;
+        }
+    }
+
+    public synchronized ResponseCacheStats getStats() {
+        return ResponseCacheStats.builder()
+                .entries(entries.size())
+                .weightBytes(weightBytes)
+                .maxWeightBytes(crawlerProperties.getCache().getMaxBytes())
+                .hitCount(hitCount.sum())
+                .missCount(missCount.sum())
+                .evictionCount(evictionCount.sum())
+                .expiredCount(expiredCount.sum())
+                .build();
+    }
+
+    private synchronized String get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expireAt <= System.currentTimeMillis()) {
+            entries.remove(key);
+            weightBytes -= entry.weight;
+            expiredCount.increment();
+            return null;
+        }
+        return entry.body;
+    }
+
+    private void put(String key, String body, long ttlMs) {
+        if (body == null) {
+            return;
+        }
+        long maxBytes = crawlerProperties.getCache().getMaxBytes();
+        long weight = weigh(key, body);
+        if (weight > maxBytes) {
+            log.debug("Response too large to cache, key: {}, bytes: {}", key, weight);
+            return;
+        }
+        synchronized (this) {
+            Entry previous = entries.put(key, new Entry(body, System.currentTimeMillis() + ttlMs, weight));
+            if (previous != null) {
+                weightBytes -= previous.weight;
+            }
+            weightBytes += weight;
+            evict(maxBytes);
+        }
+    }
+
+    /**
+     * 按访问顺序淘汰，直到占用不超过上限
+     */
+    private void evict(long maxBytes) {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (weightBytes > maxBytes && iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            iterator.remove();
+            weightBytes -= entry.weight;
+            evictionCount.increment();
+        }
+    }
+
+    private static long weigh(String key, String body) {
+        // String 按 UTF-16 估算
+        return 2L * (key.length() + body.length()) + ENTRY_OVERHEAD_BYTES;
+    }
+
+    @AllArgsConstructor
+    private static final class Entry {
+        private final String body;
+        private final long expireAt;
+        private final long weight;
+    }
+}
@@ -0,0 +1,211 @@
+package com.poly.crawler.manager;
+
+import com.poly.crawler.enums.RouteType;
+import com.poly.crawler.model.RouteStats;
+import com.poly.crawler.properties.CrawlerProperties;
+import com.poly.crawler.util.ProxyEndpoint;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import javax.annotation.Resource;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpHost;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.util.InetAddressUtils;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * 按 host 的请求路由：直连、指定代理或代理池
+ * <p>内网接口、不需要代理的站点直连，少一跳转发，也不消耗代理流量。ProxyHttpManager 与 crawlerRestTemplate 都按此路由，
+ * 未命中规则时前者走代理池（或 crawler.proxy），后者直连。
+ * <p>配置项：{@code crawler.route.*}
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Component
+@Slf4j
+public class RouteManager implements InitializingBean {
+
+    private static final String DEFAULT_KEY = "default";
+    private static final String PRIVATE_KEY = "private";
+
+    @Resource
+    private CrawlerProperties crawlerProperties;
+
+    @Resource
+    private ProxyPoolManager proxyPoolManager;
+
+    private List<RouteRule> rules = Collections.emptyList();
+
+    private final LongAdder defaultHits = new LongAdder();
+    private final LongAdder privateHits = new LongAdder();
+
+    @Override
+    public void afterPropertiesSet() {
+        List<RouteRule> compiled = new ArrayList<>();
+        for (CrawlerProperties.Route.Rule rule : crawlerProperties.getRoute().getRules()) {
+            if (!StringUtils.hasText(rule.getHost()) || rule.getType() == null) {
+                throw new IllegalArgumentException("路由规则缺少 host 或 type：" + rule.getHost());
+            }
+            ProxyEndpoint proxy = null;
+            if (rule.getType() == RouteType.PROXY && StringUtils.hasText(rule.getProxy())) {
+                try {
+                    proxy = proxyPoolManager.create(rule.getProxy().trim());
+                } catch (IllegalArgumentException e) {
+                    // 配置原文可能含有密码，不写入异常信息
+                    throw new IllegalArgumentException("路由规则代理格式错误，host：" + rule.getHost());
+                }
+            }
+            compiled.add(new RouteRule(rule.getHost().trim(), globPattern(rule.getHost().trim()),
+                    new Route(rule.getType(), proxy), new LongAdder()));
+        }
+        rules = Collections.unmodifiableList(compiled);
+        if (!rules.isEmpty()) {
+            log.info("Route rules loaded, {} rules", rules.size());
+        }
+    }
+
+    /**
+     * host 对应的路由
+     *
+     * @param host        请求 host
+     * @param defaultType 未命中任何规则时的路由方式
+     */
+    public Route route(String host, RouteType defaultType) {
+        if (crawlerProperties.getRoute().isDirectPrivateAddresses() && isPrivate(host)) {
+            privateHits.increment();
+            return Route.DIRECT;
+        }
+        for (RouteRule rule : rules) {
+            if (rule.pattern.matcher(host).matches()) {
+                rule.hits.increment();
+                return rule.route;
+            }
+        }
+        defaultHits.increment();
+        return new Route(defaultType, null);
+    }
+
+    /**
+     * crawlerRestTemplate 的代理，未命中规则时直连；需要认证时在 context 中设置凭证
+     * <p>同步客户端无法回报请求结果，POOL 路由只按健康分选择代理，不参与健康统计。
+     *
+     * @return null 表示直连
+     */
+    public HttpHost determineProxy(String host, HttpClientContext context) {
+        Route route = this.route(host.toLowerCase(Locale.ROOT), RouteType.DIRECT);
+        ProxyEndpoint proxy = route.getProxy();
+        if (route.getType() == RouteType.POOL) {
+            proxy = proxyPoolManager.select();
+        } else if (route.getType() == RouteType.DIRECT) {
+            return null;
+        }
+        if (proxy != null) {
+            proxy.authenticate(context);
+            return proxy.getHost();
+        }
+        // 未指定代理或代理池不可用时走 crawler.proxy
+        CrawlerProperties.Proxy defaultProxy = crawlerProperties.getProxy();
+        if (defaultProxy == null || !StringUtils.hasText(defaultProxy.getHost())) {
+            return null;
+        }
+        HttpHost proxyHost = new HttpHost(defaultProxy.getHost(), defaultProxy.getPort());
+        ProxyEndpoint.authenticate(context, proxyHost, defaultProxy.getUserName(), defaultProxy.getPassword());
+        return proxyHost;
+    }
+
+    /**
+     * 各规则的命中次数
+     */
+    public List<RouteStats> getStats() {
+        List<RouteStats> stats = new ArrayList<>(rules.size() + 2);
+        stats.add(RouteStats.builder().host(PRIVATE_KEY).type(RouteType.DIRECT).hits(privateHits.sum()).build());
+        for (RouteRule rule : rules) {
+            ProxyEndpoint proxy = rule.route.getProxy();
+            stats.add(RouteStats.builder()
+                    .host(rule.host)
+                    .type(rule.route.getType())
+                    .proxy(proxy == null ? null : proxy.getKey())
+                    .hits(rule.hits.sum())
+                    .build());
+        }
+        stats.add(RouteStats.builder().host(DEFAULT_KEY).hits(defaultHits.sum()).build());
+        return stats;
+    }
+
+    /**
+     * * 匹配任意字符，其余按字面匹配
+     */
+    private static Pattern globPattern(String glob) {
+        StringBuilder regex = new StringBuilder();
+        String[] parts = glob.split("\\*", -1);
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                regex.append(".*");
+            }
+            if (!parts[i].isEmpty()) {
+                regex.append(Pattern.quote(parts[i]));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE);
+    }
+
+    /**
+     * localhost 及 IP 形式的回环、私有网段、链路本地地址，不做 DNS 解析
+     */
+    private static boolean isPrivate(String host) {
+        if ("localhost".equals(host)) {
+            return true;
+        }
+        String address = host.startsWith("[") && host.endsWith("]") ? host.substring(1, host.length() - 1) : host;
+        if (!InetAddressUtils.isIPv4Address(address) && !InetAddressUtils.isIPv6Address(address)) {
+            return false;
+        }
+        try {
+            InetAddress inetAddress = InetAddress.getByName(address);
+            return inetAddress.isLoopbackAddress() || inetAddress.isSiteLocalAddress()
+                    || inetAddress.isLinkLocalAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 路由结果
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class Route {
+
+        private static final Route DIRECT = new Route(RouteType.DIRECT, null);
+
+        /**
+         * 路由方式
+         */
+        private final RouteType type;
+
+        /**
+         * type 为 PROXY 时指定的代理，null 表示 crawler.proxy
+         */
+        private final ProxyEndpoint proxy;
+    }
+
+    @AllArgsConstructor
+    private static final class RouteRule {
+        private final String host;
+        private final Pattern pattern;
+        private final Route route;
+        private final LongAdder hits;
+    }
+}
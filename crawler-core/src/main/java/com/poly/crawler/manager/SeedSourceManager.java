@@ -0,0 +1,242 @@
+package com.poly.crawler.manager;
+
+import com.poly.crawler.exception.CrawlerException;
+import com.poly.crawler.util.MappedLines;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import javax.annotation.Resource;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 种子来源：按需产出 url，配合 {@link com.poly.crawler.process.AbsCrawlerProcessor#executeSeeds(Iterable, java.util.function.Consumer)}
+ * 边读边提交，不在内存中展开整批 context
+ * <ul>
+ *     <li>sitemap：StAX 流式解析，支持 sitemap index（子 sitemap 依次展开）和 gzip 压缩，地址可以是 url 或本地文件。</li>
+ *     <li>种子文件：每行一个 url，通过内存映射逐行读取，忽略空行和 '#' 开头的注释行。</li>
+ * </ul>
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Component
+@Slf4j
+public class SeedSourceManager {
+
+    private static final String URL_ELEMENT = "url";
+    private static final String SITEMAP_ELEMENT = "sitemap";
+    private static final String LOC_ELEMENT = "loc";
+
+    /**
+     * sitemap 协议规定单个文件解压后不超过 50MB，不受 crawler.http.maxBodyBytes 限制
+     */
+    private static final long SITEMAP_MAX_BYTES = 50L * 1024 * 1024;
+
+    @Resource
+    private ProxyHttpManager proxyHttpManager;
+
+    private final XMLInputFactory xmlInputFactory = createXmlInputFactory();
+
+    /**
+     * sitemap 中的页面 url
+     * <p>单个 sitemap 读取失败时记录日志并跳过，继续读取 index 中的其余 sitemap。
+     *
+     * @param location sitemap 地址（http/https url 或本地文件路径）
+     */
+    public Iterable<String> sitemap(String location) {
+        return () -> new SitemapIterator(location);
+    }
+
+    /**
+     * 种子文件中的 url，每行一个
+     *
+     * @param file 种子文件（UTF-8）
+     */
+    public Iterable<String> seedFile(Path file) {
+        if (!Files.isRegularFile(file)) {
+            throw new CrawlerException("Seed file not found: " + file);
+        }
+        MappedLines lines = new MappedLines(file);
+        return () -> new Iterator<String>() {
+            private final Iterator<String> delegate = lines.iterator();
+            private String next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && delegate.hasNext()) {
+                    String line = delegate.next().trim();
+                    if (!line.isEmpty() && !line.startsWith("#")) {
+                        next = line;
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String url = next;
+                next = null;
+                return url;
+            }
+        };
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // sitemap 来自外部站点，禁用 DTD 和外部实体
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    private InputStream open(String location) throws IOException {
+        InputStream in;
+        if (location.startsWith("http://") || location.startsWith("https://")) {
+            // 不生成解压后的完整字节，边解压边交给 StAX 解析
+            in = proxyHttpManager.getBody(location, 0, SITEMAP_MAX_BYTES).openStream();
+        } else {
+            in = Files.newInputStream(Paths.get(location));
+        }
+        // 按魔数识别 gzip，不依赖扩展名和 Content-Type
+        BufferedInputStream buffered = new BufferedInputStream(in);
+        buffered.mark(2);
+        int b1 = buffered.read();
+        int b2 = buffered.read();
+        buffered.reset();
+        if (b1 == 0x1f && b2 == 0x8b) {
+            return new GZIPInputStream(buffered);
+        }
+        return buffered;
+    }
+
+    /**
+     * 逐个读取 sitemap，遇到 sitemap index 时把子 sitemap 加入待读队列
+     */
+    private final class SitemapIterator implements Iterator<String> {
+
+        private final Deque<String> sitemaps = new ArrayDeque<>();
+        private final Set<String> visited = new HashSet<>();
+        private String current;
+        private InputStream in;
+        private XMLStreamReader reader;
+        private String next;
+
+        private SitemapIterator(String location) {
+            sitemaps.add(location);
+            visited.add(location);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                if (reader == null && !openNext()) {
+                    return false;
+                }
+                try {
+                    next = readLoc();
+                } catch (XMLStreamException e) {
+                    log.error("Failed to parse sitemap {}: {}", current, e.getMessage());
+                }
+                if (next == null) {
+                    close();
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String url = next;
+            next = null;
+            return url;
+        }
+
+        private boolean openNext() {
+            while (!sitemaps.isEmpty()) {
+                current = sitemaps.poll();
+                try {
+                    in = open(current);
+                    reader = xmlInputFactory.createXMLStreamReader(in);
+                    log.info("Reading sitemap {}", current);
+                    return true;
+                } catch (Exception e) {
+                    log.error("Failed to open sitemap {}: {}", current, e.getMessage());
+                    close();
+                }
+            }
+            return false;
+        }
+
+        /**
+         * 读取下一个页面 url，子 sitemap 加入待读队列，当前 sitemap 读完时返回 null
+         */
+        private String readLoc() throws XMLStreamException {
+            String parent = null;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if (URL_ELEMENT.equals(name) || SITEMAP_ELEMENT.equals(name)) {
+                        parent = name;
+                    } else if (LOC_ELEMENT.equals(name) && parent != null) {
+                        String loc = reader.getElementText().trim();
+                        if (loc.isEmpty()) {
+                            continue;
+                        }
+                        if (URL_ELEMENT.equals(parent)) {
+                            return loc;
+                        }
+                        if (visited.add(loc)) {
+                            sitemaps.add(loc);
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT
+                        && (URL_ELEMENT.equals(reader.getLocalName()) || SITEMAP_ELEMENT.equals(reader.getLocalName()))) {
+                    parent = null;
+                }
+            }
+            return null;
+        }
+
+        private void close() {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    log.warn("Failed to close sitemap reader: {}", e.getMessage());
+                }
+                reader = null;
+            }
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    log.warn("Failed to close sitemap {}: {}", current, e.getMessage());
+                }
+                in = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.poly.crawler.manager;
+
+import com.poly.crawler.model.SeenSetStats;
+import com.poly.crawler.properties.CrawlerProperties;
+import com.poly.crawler.util.BloomFilter;
+import com.poly.crawler.util.UrlUtils;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+/**
+ * 已爬取 url 集合（布隆过滤器），按规范化 url 去重
+ * <p>处理器在 addAllCrawlerContext 中可通过 {@link #isSeen(String)} 过滤，
+ * 开启 {@code AbsCrawlerProcessor#skipSeenUrls()} 的处理器在 executeBatch 提交前自动跳过已爬取的 url，
+ * 也只有这些处理器成功处理的 url 会被标记。
+ * 启动时从文件加载，关闭时写回文件，跨进程保留最近的爬取记录。
+ * <p>按代轮换：当前代写入的 url 数达到 expected-insertions 时，当前代转为上一代，原上一代丢弃。
+ * 查询同时检查两代，误判率不超过约 2 倍 fpp，不会因过滤器饱和而无限上升；url 记录保留一到两代后过期，重新爬取。
+ * <p>配置项：{@code crawler.seen-set.*}
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Component
+@Slf4j
+public class SeenUrlManager implements InitializingBean, DisposableBean {
+
+    @Resource
+    private CrawlerProperties crawlerProperties;
+
+    /**
+     * 当前代，标记写入此代
+     */
+    private volatile BloomFilter filter;
+
+    /**
+     * 上一代，只读，下次轮换时丢弃
+     */
+    private volatile BloomFilter previous;
+
+    /**
+     * 当前代已写入的 url 数
+     */
+    private final AtomicLong insertions = new AtomicLong();
+
+    private final LongAdder skippedCount = new LongAdder();
+    private final LongAdder rotationCount = new LongAdder();
+
+    @Override
+    public void afterPropertiesSet() {
+        CrawlerProperties.SeenSet config = crawlerProperties.getSeenSet();
+        if (!config.isEnabled()) {
+            return;
+        }
+        load(config);
+        if (filter == null) {
+            this.filter = BloomFilter.create(config.getExpectedInsertions(), config.getFpp(), config.isOffHeap());
+        }
+        log.info("Seen set initialized, bits: {}, hashes: {}, offHeap: {}", filter.getNumBits(),
+                filter.getNumHashes(), filter.isOffHeap());
+    }
+
+    @Override
+    public void destroy() {
+        save();
+    }
+
+    /**
+     * url 是否已爬取（可能误判为已爬取），未开启时返回 false
+     */
+    public boolean isSeen(String url) {
+        BloomFilter current = filter;
+        if (current == null || url == null) {
+            return false;
+        }
+        String key = UrlUtils.canonicalize(url);
+        BloomFilter last = previous;
+        return current.mightContain(key) || last != null && last.mightContain(key);
+    }
+
+    /**
+     * 标记 url 已爬取，当前代写满时轮换
+     *
+     * @return 是否首次写入当前代
+     */
+    public boolean markSeen(String url) {
+        BloomFilter current = filter;
+        if (current == null || url == null || !current.put(UrlUtils.canonicalize(url))) {
+            return false;
+        }
+        if (insertions.incrementAndGet() >= crawlerProperties.getSeenSet().getExpectedInsertions()) {
+            this.rotate(current);
+        }
+        return true;
+    }
+
+    /**
+     * 当前代转为上一代，新建空的当前代
+     */
+    private synchronized void rotate(BloomFilter full) {
+        if (filter != full) {
+            // 其他线程已轮换
+            return;
+        }
+        CrawlerProperties.SeenSet config = crawlerProperties.getSeenSet();
+        this.previous = full;
+        this.filter = BloomFilter.create(config.getExpectedInsertions(), config.getFpp(), config.isOffHeap());
+        insertions.set(0);
+        rotationCount.increment();
+        log.info("Seen set rotated after {} insertions", config.getExpectedInsertions());
+    }
+
+    /**
+     * 记录一次因已爬取而跳过
+     */
+    public void recordSkipped() {
+        skippedCount.increment();
+    }
+
+    /**
+     * 清空集合
+     */
+    public synchronized void reset() {
+        CrawlerProperties.SeenSet config = crawlerProperties.getSeenSet();
+        if (config.isEnabled()) {
+            this.previous = null;
+            this.filter = BloomFilter.create(config.getExpectedInsertions(), config.getFpp(), config.isOffHeap());
+            insertions.set(0);
+        }
+    }
+
+    /**
+     * 写回文件（先写临时文件再原子替换，依次写入当前代、上一代），未配置文件时不保存
+     */
+    public void save() {
+        BloomFilter current = filter;
+        BloomFilter last = previous;
+        String file = crawlerProperties.getSeenSet().getFile();
+        if (current == null || file == null || file.isEmpty()) {
+            return;
+        }
+        Path path = Paths.get(file);
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                current.writeTo(out);
+                if (last != null) {
+                    last.writeTo(out);
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Seen set saved to {}, approximate count: {}", path, current.approximateCount());
+        } catch (IOException e) {
+            log.error("Failed to save seen set to {}", path, e);
+        }
+    }
+
+    public SeenSetStats getStats() {
+        BloomFilter current = filter;
+        if (current == null) {
+            return SeenSetStats.builder().build();
+        }
+        BloomFilter last = previous;
+        return SeenSetStats.builder()
+                .numBits(current.getNumBits())
+                .numHashes(current.getNumHashes())
+                .offHeap(current.isOffHeap())
+                .approximateCount(current.approximateCount())
+                .previousCount(last == null ? 0 : last.approximateCount())
+                // 任一代误判即误判
+                .expectedFpp(last == null ? current.expectedFpp()
+                        : 1 - (1 - current.expectedFpp()) * (1 - last.expectedFpp()))
+                .skippedCount(skippedCount.sum())
+                .rotationCount(rotationCount.sum())
+                .build();
+    }
+
+    /**
+     * 从文件加载当前代和上一代（只有一代的旧文件也可读取）
+     */
+    private void load(CrawlerProperties.SeenSet config) {
+        String file = config.getFile();
+        if (file == null || file.isEmpty() || !Files.exists(Paths.get(file))) {
+            return;
+        }
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(Paths.get(file)))) {
+            BloomFilter current = BloomFilter.readFrom(in, config.isOffHeap());
+            BloomFilter last = in.available() > 0 ? BloomFilter.readFrom(in, config.isOffHeap()) : null;
+            this.filter = current;
+            this.previous = last;
+            insertions.set(current.approximateCount());
+            log.info("Seen set loaded from {}, approximate count: {}, previous generation: {}", file,
+                    current.approximateCount(), last == null ? 0 : last.approximateCount());
+        } catch (IOException e) {
+            log.error("Failed to load seen set from {}, starting empty", file, e);
+        }
+    }
+}
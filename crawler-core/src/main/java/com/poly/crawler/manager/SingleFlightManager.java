@@ -0,0 +1,156 @@
+package com.poly.crawler.manager;
+
+import com.poly.crawler.exception.CrawlerException;
+import com.poly.crawler.exception.CrawlerRetryException;
+import com.poly.crawler.model.SingleFlightStats;
+import com.poly.crawler.properties.CrawlerProperties;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 请求合并（single-flight）：同一个 key 的请求在途时，后来的调用方等待并复用同一个结果，不重复发起请求
+ * <p>只合并在途请求，不缓存已完成的结果。配置项：{@code crawler.single-flight.enabled}
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Component
+@Slf4j
+public class SingleFlightManager {
+
+    @Resource
+    private CrawlerProperties crawlerProperties;
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder leaderCount = new LongAdder();
+    private final LongAdder followerCount = new LongAdder();
+
+    /**
+     * 执行请求，同 key 请求在途时等待其结果
+     *
+     * @param key      请求 key，null 表示不合并
+     * @param deadline 等待在途请求的截止时间（毫秒时间戳），0 表示不限制
+     * @param supplier 实际请求
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, long deadline, Supplier<T> supplier) {
+        if (key == null || !crawlerProperties.getSingleFlight().isEnabled()) {
+            return supplier.get();
+        }
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            followerCount.increment();
+            log.info("Joining in-flight request, key: {}", key);
+            return (T) await(key, existing, deadline);
+        }
+
+        leaderCount.increment();
+        try {
+            T result = supplier.get();
+            created.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            if (Thread.currentThread().isInterrupted()) {
+                // 发起方被取消，等待方自行重试
+                created.completeExceptionally(new CrawlerRetryException("合并的请求被取消"));
+            } else {
+                created.completeExceptionally(e);
+            }
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    /**
+     * 异步执行请求，同 key 请求在途时复用其结果，不占用等待线程
+     * <p>等待方取消自己拿到的 future 不影响发起方；发起方被取消时等待方得到可重试异常。
+     *
+     * @param key      请求 key，null 表示不合并
+     * @param supplier 实际请求
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> executeAsync(String key, Supplier<CompletableFuture<T>> supplier) {
+        if (key == null || !crawlerProperties.getSingleFlight().isEnabled()) {
+            return supplier.get();
+        }
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            followerCount.increment();
+            log.info("Joining in-flight request, key: {}", key);
+            CompletableFuture<T> joined = new CompletableFuture<>();
+            existing.whenComplete((result, throwable) -> {
+                if (throwable == null) {
+                    joined.complete((T) result);
+                } else {
+                    joined.completeExceptionally(throwable instanceof CompletionException
+                            ? throwable.getCause() : throwable);
+                }
+            });
+            return joined;
+        }
+
+        leaderCount.increment();
+        CompletableFuture<T> future;
+        try {
+            future = supplier.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(e);
+            throw e;
+        }
+        future.whenComplete((result, throwable) -> {
+            inFlight.remove(key, created);
+            if (future.isCancelled()) {
+                // 发起方被取消，等待方自行重试
+                created.completeExceptionally(new CrawlerRetryException("合并的请求被取消"));
+            } else if (throwable != null) {
+                created.completeExceptionally(throwable instanceof CompletionException
+                        ? throwable.getCause() : throwable);
+            } else {
+                created.complete(result);
+            }
+        });
+        return future;
+    }
+
+    public SingleFlightStats getStats() {
+        return SingleFlightStats.builder()
+                .inFlight(inFlight.size())
+                .leaderCount(leaderCount.sum())
+                .followerCount(followerCount.sum())
+                .build();
+    }
+
+    private Object await(String key, CompletableFuture<Object> future, long deadline) {
+        try {
+            if (deadline <= 0) {
+                return future.get();
+            }
+            return future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new CrawlerException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new CrawlerRetryException("等待合并的请求超时，key：" + key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CrawlerException("等待合并的请求被中断");
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.poly.crawler.manager;
+
+import com.poly.crawler.model.SubmitWindowStats;
+import com.poly.crawler.properties.CrawlerProperties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 任务提交窗口，限制批量任务在 crawlerTaskExecutor 上的在途任务数
+ * <p>窗口满时阻塞提交方（而不是让线程池抛出 RejectedExecutionException），
+ * 任意规模的批量任务都以稳定速率流入线程池，内存占用与批量大小无关。
+ * <p>每个批量任务通过 {@link #open()} 持有独立的窗口，同时从进程内共享的全局许可中申请，多个批量任务并发时在途总数也有上限。
+ * 嵌套的批量任务（在爬虫工作线程中再次批量执行，如流水线阶段、fan-out）只在全局许可空闲时占用，不阻塞等待：
+ * 外层 context 已持有全局许可，内层等待外层释放会死锁。重试、异步下载后的续处理属于已持有许可的 context，不再申请许可。
+ * <p>配置项：{@code crawler.submit.max-in-flight}（单个批量任务）、{@code crawler.submit.max-in-flight-total}（所有批量任务），
+ * 不配置时都取 (maxPoolSize + queueCapacity) / 2，为已提交 context 的续处理（异步下载完成后的解析、处理及重试）
+ * 在同一线程池中的任务预留一半容量；全局上限不小于单个批量任务的上限。
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Component
+@Slf4j
+public class SubmitWindowManager implements InitializingBean {
+
+    /**
+     * 等待许可时的轮询间隔，期间执行调用方的回调（如交付已完成的结果）
+     */
+    private static final long POLL_MILLIS = 100;
+
+    @Resource
+    private CrawlerProperties crawlerProperties;
+
+    @Resource(name = "crawlerTaskExecutor")
+    private ThreadPoolTaskExecutor crawlerTaskExecutor;
+
+    @Resource(name = "crawlerProcessExecutor")
+    private ThreadPoolTaskExecutor crawlerProcessExecutor;
+
+    private int maxInFlight;
+
+    private int maxInFlightTotal;
+
+    /**
+     * 所有批量任务共享的全局许可
+     */
+    private Semaphore global;
+
+    private final Set<Window> windows = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger waitingSubmitters = new AtomicInteger();
+    private final LongAdder totalSubmitted = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    @Override
+    public void afterPropertiesSet() {
+        int capacity = Math.max(1, (crawlerTaskExecutor.getMaxPoolSize() + crawlerTaskExecutor.getQueueCapacity()) / 2);
+        int configured = crawlerProperties.getSubmit().getMaxInFlight();
+        this.maxInFlight = configured > 0 ? configured : capacity;
+        int configuredTotal = crawlerProperties.getSubmit().getMaxInFlightTotal();
+        this.maxInFlightTotal = Math.max(maxInFlight, configuredTotal > 0 ? configuredTotal : capacity);
+        this.global = new Semaphore(maxInFlightTotal);
+        log.info("Submit window initialized, maxInFlight per batch: {}, total: {}", maxInFlight, maxInFlightTotal);
+    }
+
+    /**
+     * 为一次批量任务打开提交窗口，批量任务结束后需关闭
+     * <p>在爬虫工作线程中打开的窗口视为嵌套的批量任务，不阻塞等待全局许可。
+     */
+    public Window open() {
+        Window window = new Window(this.isWorkerThread());
+        windows.add(window);
+        return window;
+    }
+
+    public SubmitWindowStats getStats() {
+        int inFlight = 0;
+        for (Window window : windows) {
+            inFlight += maxInFlight - window.semaphore.availablePermits();
+        }
+        return SubmitWindowStats.builder()
+                .maxInFlight(maxInFlight)
+                .maxInFlightTotal(maxInFlightTotal)
+                .globalInFlight(maxInFlightTotal - global.availablePermits())
+                .openWindows(windows.size())
+                .inFlight(inFlight)
+                .waitingSubmitters(waitingSubmitters.get())
+                .activeCount(crawlerTaskExecutor.getActiveCount())
+                .queueSize(crawlerTaskExecutor.getQueueSize())
+                .totalSubmitted(totalSubmitted.sum())
+                .totalWaitMillis(TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.sum()))
+                .maxWaitMillis(TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()))
+                .build();
+    }
+
+    /**
+     * 当前线程是否为爬虫工作线程（下载、处理线程）
+     */
+    private boolean isWorkerThread() {
+        String name = Thread.currentThread().getName();
+        return name.startsWith(crawlerTaskExecutor.getThreadNamePrefix())
+                || name.startsWith(crawlerProcessExecutor.getThreadNamePrefix());
+    }
+
+    /**
+     * 在 deadline 前获取许可，等待期间周期性执行 onWait
+     */
+    private static boolean acquire(Semaphore semaphore, long deadline, Runnable onWait) throws InterruptedException {
+        while (!semaphore.tryAcquire(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (onWait != null) {
+                onWait.run();
+            }
+            if (deadline > 0 && System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 单个批量任务的提交窗口，只由该批量任务的提交线程申请许可
+     */
+    public final class Window implements AutoCloseable {
+
+        private final Semaphore semaphore = new Semaphore(maxInFlight);
+
+        /**
+         * 是否为嵌套的批量任务，不阻塞等待全局许可
+         */
+        private final boolean nested;
+
+        /**
+         * 本窗口持有的全局许可数，窗口关闭时一并归还
+         */
+        private final AtomicInteger globalHeld = new AtomicInteger();
+
+        private Window(boolean nested) {
+            this.nested = nested;
+        }
+
+        /**
+         * 获取一个提交许可，窗口满时阻塞
+         *
+         * @param deadline 截止时间（毫秒时间戳），0 表示一直等待
+         * @param onWait   等待期间周期性执行的回调，可为 null
+         * @return 是否获取成功，超过截止时间返回 false
+         */
+        public boolean acquire(long deadline, Runnable onWait) throws InterruptedException {
+            totalSubmitted.increment();
+            boolean windowAcquired = semaphore.tryAcquire();
+            if (windowAcquired && (this.tryAcquireGlobal() || nested)) {
+                return true;
+            }
+            long start = System.nanoTime();
+            waitingSubmitters.incrementAndGet();
+            try {
+                // 先取本窗口许可，再取全局许可；全局许可超时时归还本窗口许可
+                if (!windowAcquired && !SubmitWindowManager.acquire(semaphore, deadline, onWait)) {
+                    totalSubmitted.decrement();
+                    return false;
+                }
+                if (nested) {
+                    this.tryAcquireGlobal();
+                } else if (SubmitWindowManager.acquire(global, deadline, onWait)) {
+                    globalHeld.incrementAndGet();
+                } else {
+                    semaphore.release();
+                    totalSubmitted.decrement();
+                    return false;
+                }
+            } finally {
+                waitingSubmitters.decrementAndGet();
+                long waitNanos = System.nanoTime() - start;
+                totalWaitNanos.add(waitNanos);
+                maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+            }
+            return true;
+        }
+
+        /**
+         * 不阻塞地获取一个全局许可
+         */
+        private boolean tryAcquireGlobal() {
+            if (global.tryAcquire()) {
+                globalHeld.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * 任务完成后释放许可
+         */
+        public void release() {
+            semaphore.release();
+            // 许可可互换：窗口还持有全局许可时归还一个；窗口关闭后已统一归还
+            if (globalHeld.getAndUpdate(held -> held > 0 ? held - 1 : held) > 0) {
+                global.release();
+            }
+        }
+
+        /**
+         * 批量任务结束，窗口不再计入统计，归还未完成任务持有的全局许可，本窗口的许可随窗口一起丢弃
+         */
+        @Override
+        public void close() {
+            windows.remove(this);
+            int held = globalHeld.getAndSet(0);
+            if (held > 0) {
+                global.release(held);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.poly.crawler.model;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 磁盘 HTTP 缓存条目：响应体及其校验信息
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CachedResponse implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 响应头 ETag
+     */
+    private String etag;
+
+    /**
+     * 响应头 Last-Modified
+     */
+    private String lastModified;
+
+    /**
+     * 响应头 Content-Type，用于识别字符集
+     */
+    private String contentType;
+
+    /**
+     * 响应头 Content-Encoding，null 表示未压缩
+     */
+    private String contentEncoding;
+
+    /**
+     * 缓存时间（毫秒时间戳）
+     */
+    private long storedAt;
+
+    /**
+     * 响应体（传输时的字节，按 contentEncoding 解压）
+     */
+    private byte[] body;
+
+}
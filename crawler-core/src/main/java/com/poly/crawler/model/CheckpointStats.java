@@ -0,0 +1,39 @@
+package com.poly.crawler.model;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量任务检查点统计信息
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CheckpointStats implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 批量任务 id
+     */
+    private String batchId;
+
+    /**
+     * 已完成的 context 数（含上次执行恢复的）
+     */
+    private int completed;
+
+    /**
+     * 尚未刷盘的 context 数
+     */
+    private int buffered;
+
+}
@@ -0,0 +1,55 @@
+package com.poly.crawler.model;
+
+import com.poly.crawler.enums.CircuitState;
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 单个 host 的熔断器统计信息
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CircuitBreakerStats implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * host
+     */
+    private String host;
+
+    /**
+     * 熔断器状态
+     */
+    private CircuitState state;
+
+    /**
+     * 连续失败次数
+     */
+    private int consecutiveFailures;
+
+    /**
+     * 距离进入半开状态的剩余时间（毫秒）
+     */
+    private long openRemainingMillis;
+
+    /**
+     * 累计被拒绝的请求数
+     */
+    private long rejectedCount;
+
+    /**
+     * 累计熔断次数
+     */
+    private long tripCount;
+
+}
@@ -0,0 +1,64 @@
+package com.poly.crawler.model;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 单个 host 的自适应并发上限统计信息
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ConcurrencyLimitStats implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * host
+     */
+    private String host;
+
+    /**
+     * 当前并发上限
+     */
+    private int limit;
+
+    /**
+     * 当前在途请求数
+     */
+    private int inFlight;
+
+    /**
+     * 最小延迟（毫秒）
+     */
+    private long minRttMillis;
+
+    /**
+     * 平均延迟（毫秒，指数加权）
+     */
+    private long avgRttMillis;
+
+    /**
+     * 累计成功请求数
+     */
+    private long successCount;
+
+    /**
+     * 累计超时、限流请求数
+     */
+    private long droppedCount;
+
+    /**
+     * 异步等待许可的请求数
+     */
+    private int waiting;
+
+}
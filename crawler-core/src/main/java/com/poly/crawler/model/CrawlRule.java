@@ -0,0 +1,71 @@
+package com.poly.crawler.model;
+
+import java.io.Serializable;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 链接跟随爬取规则：深度、url 过滤、站点预算
+ * <p>数值类字段小于等于 0 表示不限制或使用默认值。
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CrawlRule implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 最大深度，种子页面为 0，0 表示只爬取种子页面
+     */
+    private int maxDepth;
+
+    /**
+     * 整次爬取的页面上限（含种子），0 表示不限制
+     */
+    private int maxPages;
+
+    /**
+     * 单个 host 的页面上限（含种子），0 表示不限制
+     */
+    private int maxPagesPerHost;
+
+    /**
+     * 是否跟随指向种子以外 host 的链接，默认只在种子 host 内爬取
+     */
+    private boolean followExternal;
+
+    /**
+     * url 必须匹配其中之一（正则，find 语义），为空时不限制
+     */
+    private List<String> includePatterns;
+
+    /**
+     * url 匹配其中之一时丢弃（正则，find 语义）
+     */
+    private List<String> excludePatterns;
+
+    /**
+     * 链接选择器，默认 a[href]
+     */
+    private String linkSelector;
+
+    /**
+     * 去重集合的预计 url 数，默认 1000000
+     */
+    private long expectedInsertions;
+
+    /**
+     * 去重集合的误判率，默认 0.01
+     */
+    private double fpp;
+
+}
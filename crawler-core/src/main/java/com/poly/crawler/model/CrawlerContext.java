@@ -45,4 +45,32 @@ public class CrawlerContext<I,O> implements Serializable {
      */
     private ConcurrentHashMap<String, Object> extMap;
 
+    /**
+     * 截止时间（毫秒时间戳），0 表示不限制。超过截止时间的下载、重试会被中止
+     */
+    private long deadline;
+
+    /**
+     * 是否已超过截止时间
+     */
+    public boolean isExpired() {
+        return deadline > 0 && System.currentTimeMillis() >= deadline;
+    }
+
+    /**
+     * 距截止时间的剩余毫秒数，未设置截止时间时返回 Long.MAX_VALUE
+     */
+    public long remainingMillis() {
+        return deadline > 0 ? deadline - System.currentTimeMillis() : Long.MAX_VALUE;
+    }
+
+    /**
+     * 收紧截止时间，已有更早的截止时间时保持不变
+     */
+    public void restrictDeadline(long deadline) {
+        if (deadline > 0 && (this.deadline <= 0 || deadline < this.deadline)) {
+            this.deadline = deadline;
+        }
+    }
+
 }
@@ -0,0 +1,44 @@
+package com.poly.crawler.model;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 持久化 frontier 统计信息
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class FrontierStats implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * frontier 名称
+     */
+    private String name;
+
+    /**
+     * 未确认的 context 数（含执行中）
+     */
+    private long pending;
+
+    /**
+     * 尚未取出执行的 context 数
+     */
+    private long remaining;
+
+    /**
+     * 段文件数
+     */
+    private int segments;
+
+}
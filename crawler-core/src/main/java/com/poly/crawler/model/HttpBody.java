@@ -0,0 +1,167 @@
+package com.poly.crawler.model;
+
+import com.poly.crawler.exception.CrawlerException;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.brotli.dec.BrotliInputStream;
+
+/**
+ * 未解压的响应体：只保存传输时的（压缩）字节，读取时边读边解压
+ * <p>多个请求方可以共享同一个 HttpBody，各自调用 {@link #openStream()} 读取，互不影响。
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class HttpBody implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 传输字节，只有前 length 个有效
+     */
+    private byte[] bytes;
+
+    /**
+     * 有效字节数
+     */
+    private int length;
+
+    /**
+     * 响应头 Content-Encoding，null 表示未压缩
+     */
+    private String contentEncoding;
+
+    /**
+     * 响应头 Content-Type
+     */
+    private String contentType;
+
+    /**
+     * 解压后的字节数上限，0 表示不限制
+     */
+    private long maxBytes;
+
+    /**
+     * 响应状态码
+     */
+    private int statusCode;
+
+    /**
+     * 未压缩的 200 响应体
+     */
+    public static HttpBody identity(byte[] bytes, String contentType, long maxBytes) {
+        return new HttpBody(bytes, bytes.length, null, contentType, maxBytes, 200);
+    }
+
+    /**
+     * 是否为 2xx 响应
+     */
+    public boolean isSuccessful() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    /**
+     * 打开解压后的输入流，超过 maxBytes 时读取抛出异常
+     */
+    public InputStream openStream() throws IOException {
+        InputStream in = decoder(new ByteArrayInputStream(bytes, 0, length));
+        return maxBytes > 0 ? new LimitedInputStream(in, maxBytes) : in;
+    }
+
+    /**
+     * 解压后的完整响应体
+     */
+    public byte[] toByteArray() throws IOException {
+        if (contentEncoding == null && length == bytes.length) {
+            return bytes;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(8192, length));
+        try (InputStream in = openStream()) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private InputStream decoder(InputStream in) throws IOException {
+        String encoding = contentEncoding == null ? "" : contentEncoding.trim().toLowerCase(Locale.ROOT);
+        switch (encoding) {
+            case "gzip":
+            case "x-gzip":
+                return new GZIPInputStream(in);
+            case "deflate":
+                // 规范要求 zlib 格式，部分服务器发送不带 zlib 头的原始 deflate
+                BufferedInputStream buffered = new BufferedInputStream(in);
+                buffered.mark(2);
+                int b0 = buffered.read();
+                int b1 = buffered.read();
+                buffered.reset();
+                boolean zlib = (b0 & 0x0f) == 8 && ((b0 << 8) | b1) % 31 == 0;
+                return new InflaterInputStream(buffered, new Inflater(!zlib));
+            case "br":
+                return new BrotliInputStream(in);
+            default:
+                return in;
+        }
+    }
+
+    /**
+     * 限制解压后的字节数，防止压缩炸弹
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+
+        private final long maxBytes;
+        private long count;
+
+        private LimitedInputStream(InputStream in, long maxBytes) {
+            super(in);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        private void count(int read) {
+            count += read;
+            if (count > maxBytes) {
+                throw new CrawlerException("响应体超过上限：" + maxBytes + " 字节");
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.poly.crawler.model;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 磁盘 HTTP 缓存统计信息
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class HttpCacheStats implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 累计发送条件请求次数
+     */
+    private long revalidateCount;
+
+    /**
+     * 累计 304（使用缓存响应体）次数
+     */
+    private long notModifiedCount;
+
+    /**
+     * 累计写入缓存次数
+     */
+    private long storedCount;
+
+    /**
+     * 累计因 304 节省的响应体字节数
+     */
+    private long savedBytes;
+
+    /**
+     * 累计因过期或超过容量上限清理的缓存文件数
+     */
+    private long evictedCount;
+
+    /**
+     * 上次清理后缓存目录的总字节数
+     */
+    private long diskBytes;
+
+}
@@ -0,0 +1,49 @@
+package com.poly.crawler.model;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 连接池统计信息
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class HttpPoolStats implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 路由（目标 host via 代理），整个连接池为 "total"
+     */
+    private String route;
+
+    /**
+     * 使用中的连接数
+     */
+    private int leased;
+
+    /**
+     * 空闲可复用的连接数
+     */
+    private int available;
+
+    /**
+     * 等待连接的请求数
+     */
+    private int pending;
+
+    /**
+     * 连接数上限
+     */
+    private int max;
+
+}
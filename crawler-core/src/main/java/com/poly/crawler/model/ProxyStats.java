@@ -0,0 +1,74 @@
+package com.poly.crawler.model;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 代理池中单个代理的健康统计
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProxyStats implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 代理 host:port
+     */
+    private String proxy;
+
+    /**
+     * 是否处于隔离状态
+     */
+    private boolean quarantined;
+
+    /**
+     * 距离隔离到期的剩余时间（毫秒），到期后等待探测
+     */
+    private long quarantineRemainingMillis;
+
+    /**
+     * 响应延迟（毫秒，指数移动平均）
+     */
+    private double latencyMs;
+
+    /**
+     * 错误率（指数移动平均）
+     */
+    private double errorRate;
+
+    /**
+     * 在途请求数
+     */
+    private int inFlight;
+
+    /**
+     * 累计请求数
+     */
+    private long requestCount;
+
+    /**
+     * 累计失败次数
+     */
+    private long failureCount;
+
+    /**
+     * 累计被封禁次数
+     */
+    private long banCount;
+
+    /**
+     * 累计隔离次数
+     */
+    private long quarantineCount;
+
+}
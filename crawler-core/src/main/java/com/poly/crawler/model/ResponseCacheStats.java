@@ -0,0 +1,59 @@
+package com.poly.crawler.model;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 响应缓存统计信息
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ResponseCacheStats implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 缓存条目数
+     */
+    private int entries;
+
+    /**
+     * 当前占用字节数（估算）
+     */
+    private long weightBytes;
+
+    /**
+     * 最大占用字节数
+     */
+    private long maxWeightBytes;
+
+    /**
+     * 累计命中次数
+     */
+    private long hitCount;
+
+    /**
+     * 累计未命中次数
+     */
+    private long missCount;
+
+    /**
+     * 累计因容量淘汰的条目数
+     */
+    private long evictionCount;
+
+    /**
+     * 累计过期移除的条目数
+     */
+    private long expiredCount;
+
+}
@@ -0,0 +1,53 @@
+package com.poly.crawler.model;
+
+import java.io.Serializable;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 重试策略：指数退避 + 全抖动（full jitter）
+ * <p>第 n 次重试的等待时间在 [0, min(maxDelayMs, baseDelayMs * 2^n)] 内随机，
+ * 避免同一时刻失败的大量请求在同一时刻重试。
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RetryPolicy implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 最大下载次数（含首次）
+     */
+    private int maxRetries;
+
+    /**
+     * 退避基准时间（毫秒）
+     */
+    private long baseDelayMs;
+
+    /**
+     * 单次退避上限（毫秒）
+     */
+    private long maxDelayMs;
+
+    /**
+     * 计算第 retryCount 次重试前的等待时间
+     *
+     * @param retryCount 已失败次数，从 0 开始
+     * @return 等待毫秒数
+     */
+    public long backoffMillis(int retryCount) {
+        double exponential = baseDelayMs * Math.pow(2, Math.min(retryCount, 30));
+        long cap = (long) Math.min(maxDelayMs, exponential);
+        return cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+}
@@ -0,0 +1,45 @@
+package com.poly.crawler.model;
+
+import com.poly.crawler.enums.RouteType;
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 单条路由规则的命中统计
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RouteStats implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * host 匹配规则，未命中任何规则的请求为 "default"，内网地址直连为 "private"
+     */
+    private String host;
+
+    /**
+     * 路由方式，default 为 null（由调用方决定）
+     */
+    private RouteType type;
+
+    /**
+     * 指定代理 host:port
+     */
+    private String proxy;
+
+    /**
+     * 累计命中次数
+     */
+    private long hits;
+
+}
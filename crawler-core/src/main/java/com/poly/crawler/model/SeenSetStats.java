@@ -0,0 +1,64 @@
+package com.poly.crawler.model;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * url 去重集合（布隆过滤器）统计信息
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SeenSetStats implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 位数组大小
+     */
+    private long numBits;
+
+    /**
+     * 哈希函数个数
+     */
+    private int numHashes;
+
+    /**
+     * 是否堆外存储
+     */
+    private boolean offHeap;
+
+    /**
+     * 当前代估算的元素个数
+     */
+    private long approximateCount;
+
+    /**
+     * 上一代估算的元素个数，尚未轮换时为 0
+     */
+    private long previousCount;
+
+    /**
+     * 估算的当前误判率（两代合计）
+     */
+    private double expectedFpp;
+
+    /**
+     * 累计因已爬取而跳过的 context 数
+     */
+    private long skippedCount;
+
+    /**
+     * 累计轮换次数
+     */
+    private long rotationCount;
+
+}
@@ -0,0 +1,39 @@
+package com.poly.crawler.model;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 请求合并统计信息
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SingleFlightStats implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 当前在途的请求 key 数
+     */
+    private int inFlight;
+
+    /**
+     * 累计实际发起的请求数
+     */
+    private long leaderCount;
+
+    /**
+     * 累计合并到在途请求上的次数
+     */
+    private long followerCount;
+
+}
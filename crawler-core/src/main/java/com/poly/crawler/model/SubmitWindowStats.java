@@ -0,0 +1,79 @@
+package com.poly.crawler.model;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 任务提交窗口统计信息
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SubmitWindowStats implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 单个批量任务的最大在途任务数
+     */
+    private int maxInFlight;
+
+    /**
+     * 所有批量任务合计的最大在途任务数
+     */
+    private int maxInFlightTotal;
+
+    /**
+     * 当前占用的全局许可数（嵌套批量任务未取到全局许可的在途任务不计入）
+     */
+    private int globalInFlight;
+
+    /**
+     * 当前打开的提交窗口数（执行中的批量任务数）
+     */
+    private int openWindows;
+
+    /**
+     * 当前在途任务数（所有窗口已提交未完成的合计）
+     */
+    private int inFlight;
+
+    /**
+     * 正在等待提交的调用方数量
+     */
+    private int waitingSubmitters;
+
+    /**
+     * 线程池活跃线程数
+     */
+    private int activeCount;
+
+    /**
+     * 线程池队列深度
+     */
+    private int queueSize;
+
+    /**
+     * 累计提交任务数
+     */
+    private long totalSubmitted;
+
+    /**
+     * 累计等待时间（毫秒）
+     */
+    private long totalWaitMillis;
+
+    /**
+     * 最大单次等待时间（毫秒）
+     */
+    private long maxWaitMillis;
+
+}
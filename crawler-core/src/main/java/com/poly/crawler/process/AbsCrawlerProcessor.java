@@ -1,22 +1,53 @@
 package com.poly.crawler.process;
 
-import com.alibaba.fastjson.JSON;
 import com.poly.crawler.exception.CrawlerException;
 import com.poly.crawler.exception.CrawlerRetryException;
+import com.poly.crawler.manager.CheckpointManager;
+import com.poly.crawler.manager.CircuitBreakerManager;
+import com.poly.crawler.manager.FrontierManager;
+import com.poly.crawler.manager.HostRateLimitManager;
+import com.poly.crawler.manager.SeenUrlManager;
+import com.poly.crawler.manager.SubmitWindowManager;
 import com.poly.crawler.model.CrawlerContext;
+import com.poly.crawler.model.RetryPolicy;
 import com.poly.crawler.properties.CrawlerProperties;
+import com.poly.crawler.util.MappedQueue;
+import com.poly.crawler.util.UrlUtils;
+import java.io.IOException;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Resource;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ResolvableType;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 
 /**
  * AbsCrawlerProcessor 是一个抽象类，实现了 CrawlerProcessor 接口，提供了爬虫处理的基本功能。 该类封装了通用的爬虫逻辑，包括下载页面内容、处理页面结果、重试机制以及批量处理等。
@@ -26,14 +57,29 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
  * <ul>
  *     <li>执行单个爬虫任务：通过 {@link #execute(CrawlerContext)} 方法启动单个爬虫任务。</li>
  *     <li>执行批量爬虫任务：通过 {@link #executeBatch()} 方法启动批量爬虫任务，并支持线程池并发处理。</li>
- *     <li>带重试机制的下载：通过 {@link #downloadWithRetry(CrawlerContext, List)} 方法实现下载失败时的自动重试。</li>
+ *     <li>流式批量任务：通过 {@link #executeBatch(Iterable, Consumer)} 方法在每个任务完成时立即交付结果。</li>
+ *     <li>可恢复批量任务：通过 {@link #executeFrontier(String, Consumer)} 方法从磁盘 frontier 执行，重启后继续。</li>
+ *     <li>种子来源批量任务：通过 {@link #executeSeeds(Iterable, Consumer)} 方法从 sitemap、种子文件按需读取 url 执行。</li>
+ *     <li>检查点批量任务：通过 {@link #executeBatch(String, List)} 方法记录已完成的 context，同一 batchId 重新执行时跳过。</li>
+ *     <li>异步执行：通过 {@link #executeAsync(CrawlerContext)} 方法执行单个任务，重试等待期间不占用工作线程。</li>
+ *     <li>流水线模式：覆盖 {@link #pipelined()} 后，下载与处理分别在 I/O、CPU 线程池中执行。</li>
+ *     <li>带重试机制的下载：下载失败时按 {@link #retryPolicy()} 指数退避（全抖动）后自动重试。</li>
+ *     <li>按 host 熔断：连续下载失败的 host 在熔断期间直接失败，半开后只放行探测请求。</li>
  * </ul>
  *
  * <p>配置项：
  * <ul>
  *     <li>{@code crawler.maxRetries}：最大重试次数，默认为3次。</li>
- *     <li>{@code crawler.retryDelayMs}：请求间隔时间，默认为2000毫秒（2秒）。</li>
- *     <li>{@code crawler.batchTimeoutSeconds}：批量请求超时时间，默认为300秒（5分钟）。</li>
+ *     <li>{@code crawler.retryDelayMs}：重试退避基准时间，默认为2000毫秒（2秒）。</li>
+ *     <li>{@code crawler.retry.max-delay-ms}：单次重试退避上限，默认为30000毫秒。</li>
+ *     <li>{@code crawler.rate-limit.*}：批量任务及重试按 host 限速，默认每个 host 每秒 0.5 次请求。</li>
+ *     <li>{@code crawler.submit.max-in-flight}：单个批量任务的最大在途数，超出时阻塞提交方。</li>
+ *     <li>{@code crawler.submit.max-in-flight-total}：所有批量任务合计的最大在途数，超出时阻塞提交方。</li>
+ *     <li>{@code crawler.circuit-breaker.*}：按 host 熔断，默认连续失败 5 次后熔断 30 秒。</li>
+ *     <li>{@code crawler.cache.*}：下载响应的内存缓存，按处理器配置缓存时间，见 {@link #cacheTtlMillis()}。</li>
+ *     <li>{@code crawler.seen-set.*}：已爬取 url 集合，开启跳过的处理器成功处理后标记，见 {@link #skipSeenUrls()}。</li>
+ *     <li>{@code crawler.batchTimeoutSeconds}：批量请求超时时间（从开始提交计时），默认为300秒（5分钟），
+ *     作为截止时间下发到每个 context，超时后正在执行的下载会被中止。</li>
  * </ul>
  *
  * @param <I> 输入参数类型
@@ -46,12 +92,41 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 @Slf4j
 public abstract class AbsCrawlerProcessor<I, O, R> implements CrawlerProcessor<I, O, R> {
 
+    /**
+     * crawlerTaskExecutor、crawlerProcessExecutor 已满时再次投递的间隔（毫秒）
+     */
+    private static final long REJECTED_RETRY_MILLIS = 50;
+
     @Resource
     protected CrawlerProperties crawlerProperties;
 
     @Resource(name = "crawlerTaskExecutor")
     protected ThreadPoolTaskExecutor crawlerTaskExecutor;
 
+    @Resource(name = "crawlerProcessExecutor")
+    protected ThreadPoolTaskExecutor crawlerProcessExecutor;
+
+    @Resource(name = "crawlerScheduledExecutor")
+    protected ScheduledExecutorService crawlerScheduledExecutor;
+
+    @Resource
+    protected HostRateLimitManager hostRateLimitManager;
+
+    @Resource
+    protected SubmitWindowManager submitWindowManager;
+
+    @Resource
+    protected CircuitBreakerManager circuitBreakerManager;
+
+    @Resource
+    protected SeenUrlManager seenUrlManager;
+
+    @Resource
+    protected FrontierManager frontierManager;
+
+    @Resource
+    protected CheckpointManager checkpointManager;
+
     /**
      * 批量执行
      */
@@ -67,97 +142,694 @@ public abstract class AbsCrawlerProcessor<I, O, R> implements CrawlerProcessor<I
     }
 
     /**
-     * 执行爬虫处理流程(支持批量处理)
+     * 执行爬虫处理流程(支持批量处理)，结果按输入顺序返回
      */
     public List<R> executeBatch(List<CrawlerContext<I, O>> contextList) {
-        // 保存线程池执行结果
-        List<CompletableFuture<R>> futures = new ArrayList<>();
-        for (CrawlerContext<I, O> context : contextList) {
-            // 添加间隔时间
-            try {
-                Thread.sleep(crawlerProperties.getRetryDelayMs());
-            } catch (InterruptedException ie) {
-                Thread.currentThread().interrupt();
-                log.error("Thread interrupted while waiting for request interval", ie);
+        List<R> results = new ArrayList<>(contextList.size());
+        this.executeBatch(contextList, results::add, true);
+        return results;
+    }
+
+    /**
+     * 流式批量执行，每个 context 完成后立即把结果交给 consumer（按完成顺序，可能乱序）
+     *
+     * @param contexts 待执行的 context，按迭代顺序逐个提交
+     * @param consumer 结果消费者，只会在调用线程中串行执行，null 结果不会交付
+     * @return 交付的结果数量
+     */
+    public int executeBatch(Iterable<CrawlerContext<I, O>> contexts, Consumer<R> consumer) {
+        return this.executeBatch(contexts, consumer, false);
+    }
+
+    /**
+     * 流式批量执行
+     * <p>提交的同时消费已完成的结果，下游写入与爬取并行；已交付的 context 会释放 output，避免整批结果常驻内存。
+     *
+     * @param contexts 待执行的 context，按迭代顺序逐个提交
+     * @param consumer 结果消费者，只会在调用线程中串行执行，null 结果不会交付
+     * @param ordered  true 按输入顺序交付（先完成的结果暂存到前序结果交付为止），false 按完成顺序交付
+     * @return 交付的结果数量
+     */
+    public int executeBatch(Iterable<CrawlerContext<I, O>> contexts, Consumer<R> consumer, boolean ordered) {
+        return this.executeBatch(contexts, consumer, ordered, new BatchHooks<>());
+    }
+
+    /**
+     * 从种子来源流式批量执行，结果按完成顺序交付
+     * <p>url 按需读取并通过 {@link #seedContext(String)} 构造 context，首个请求不必等待种子读取完成，
+     * 在途 context 数受提交窗口限制。
+     *
+     * @param urls     种子 url，如 {@link com.poly.crawler.manager.SeedSourceManager#sitemap(String)}
+     * @param consumer 结果消费者，只会在调用线程中串行执行，null 结果不会交付
+     * @return 交付的结果数量
+     */
+    public int executeSeeds(Iterable<String> urls, Consumer<R> consumer) {
+        return this.executeBatch(this.seedContexts(urls), consumer);
+    }
+
+    /**
+     * 把种子 url 按需转换为 context，迭代时才读取 url
+     *
+     * @see #seedContext(String)
+     */
+    protected Iterable<CrawlerContext<I, O>> seedContexts(Iterable<String> urls) {
+        return () -> new Iterator<CrawlerContext<I, O>>() {
+            private final Iterator<String> delegate = urls.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return delegate.hasNext();
             }
-            CompletableFuture<R> future = CompletableFuture.supplyAsync(() -> {
-                try {
-                    // 调用 execute 方法处理单个输入
-                    return this.execute(context);
-                } catch (Exception e) {
-                    log.error("BatchCrawlerProcessor error during batch execution: ", e);
-                    return null;
+
+            @Override
+            public CrawlerContext<I, O> next() {
+                return seedContext(delegate.next());
+            }
+        };
+    }
+
+    /**
+     * 由种子 url 构造 context，默认只设置 url
+     */
+    protected CrawlerContext<I, O> seedContext(String url) {
+        return CrawlerContext.<I, O>builder().url(url).build();
+    }
+
+    /**
+     * 流式批量执行，结果按完成顺序交付，供子类在 context 完成时扩展处理（如从页面中发现新的 context）
+     * <p>contexts 可在 onFinished 中继续增长：迭代器暂时没有下一个时，若仍有执行中的 context，调用线程等待其完成
+     * （期间交付结果、检查批量截止时间）后再次调用 hasNext，没有执行中的 context 时结束。迭代器的 hasNext 不应阻塞。
+     *
+     * @param onFinished context 执行完成（含失败、因已爬取跳过，不含取消）时的回调，在工作线程中执行，此时 output 尚未释放
+     */
+    protected int executeBatch(Iterable<CrawlerContext<I, O>> contexts, Consumer<R> consumer,
+            BiConsumer<CrawlerContext<I, O>, R> onFinished) {
+        BatchHooks<I, O, R> hooks = new BatchHooks<>();
+        hooks.onFinished = onFinished;
+        hooks.growing = true;
+        return this.executeBatch(contexts, consumer, false, hooks);
+    }
+
+    /**
+     * 带检查点的批量执行，结果按输入顺序返回
+     *
+     * @param batchId     批量任务 id，同一 id 再次执行时跳过已完成的 context
+     * @param contextList 待执行的 context
+     * @see #executeBatch(String, Iterable, Consumer, boolean)
+     */
+    public List<R> executeBatch(String batchId, List<CrawlerContext<I, O>> contextList) {
+        List<R> results = new ArrayList<>(contextList.size());
+        this.executeBatch(batchId, contextList, results::add, true);
+        return results;
+    }
+
+    /**
+     * 带检查点的流式批量执行
+     * <p>成功完成（结果不为 null）的 context 连同结果定时写入 crawler.checkpoint.dir 下的日志，应用关闭时刷盘。
+     * 同一 batchId 再次执行时，已完成的 context 不再爬取，直接交付日志中的结果；整批执行完成后删除日志。
+     *
+     * @param batchId  批量任务 id，只能包含字母、数字、'_'、'.'、'-'
+     * @param contexts 待执行的 context，按迭代顺序逐个提交
+     * @param consumer 结果消费者，只会在调用线程中串行执行，null 结果不会交付
+     * @param ordered  true 按输入顺序交付，false 按完成顺序交付
+     * @return 交付的结果数量（含从检查点恢复的结果）
+     */
+    public int executeBatch(String batchId, Iterable<CrawlerContext<I, O>> contexts, Consumer<R> consumer,
+            boolean ordered) {
+        ResolvableType generic = ResolvableType.forClass(AbsCrawlerProcessor.class, ClassUtils.getUserClass(this))
+                .getGeneric(2);
+        // 保留结果的泛型参数（如 List<Foo>），无法解析时按 JSON 原样恢复
+        Type resultType = generic.resolve() != null ? generic.getType() : Object.class;
+        CheckpointManager.Checkpoint checkpoint = checkpointManager.open(batchId, resultType);
+        if (checkpoint.completedCount() > 0) {
+            log.info("Resuming batch {}, {} contexts already completed", batchId, checkpoint.completedCount());
+        }
+        BatchHooks<I, O, R> hooks = new BatchHooks<>();
+        hooks.replay = checkpoint::replay;
+        hooks.onFinished = checkpoint::record;
+        boolean complete = false;
+        try {
+            int delivered = this.executeBatch(contexts, consumer, ordered, hooks);
+            complete = hooks.complete;
+            return delivered;
+        } finally {
+            checkpointManager.finish(checkpoint, complete);
+        }
+    }
+
+    /**
+     * 从持久化 frontier 流式批量执行，frontier 为空时用 {@link #addAllCrawlerContext()} 初始化
+     *
+     * @see #executeFrontier(String, Iterable, Consumer)
+     */
+    public int executeFrontier(String name, Consumer<R> consumer) {
+        // 只在需要初始化时才构造 context 列表
+        return this.executeFrontier(name, () -> this.addAllCrawlerContext().iterator(), consumer);
+    }
+
+    /**
+     * 从持久化 frontier 流式批量执行，结果按完成顺序交付
+     * <p>frontier 为空时先把 seeds 逐个写入 frontier（不在内存中展开）；不为空说明上次执行未完成，忽略 seeds，从提交位置继续。
+     * 执行完成（含失败）的 context 会被确认；因超时被取消的 context 不确认，下次执行（同一进程内或重启后）时重新投递。
+     * 同一 frontier 不能并发执行。
+     *
+     * @param name     frontier 名称，对应 crawler.frontier.dir 下的子目录
+     * @param seeds    初始 context，如 {@link #seedContexts(Iterable)} 转换的种子 url
+     * @param consumer 结果消费者，只会在调用线程中串行执行，null 结果不会交付
+     * @return 交付的结果数量
+     */
+    public int executeFrontier(String name, Iterable<CrawlerContext<I, O>> seeds, Consumer<R> consumer) {
+        MappedQueue queue = frontierManager.queue(name);
+        // 上次执行中取出但未确认的 context 从提交位置重新投递，不再阻塞提交和段删除
+        queue.rewind();
+        if (queue.pending() == 0) {
+            int seeded = frontierManager.offerAll(name, seeds);
+            log.info("Frontier {} seeded with {} contexts", name, seeded);
+        } else {
+            log.info("Resuming frontier {}, {} contexts pending", name, queue.pending());
+        }
+        Type inputType = ResolvableType.forClass(AbsCrawlerProcessor.class, ClassUtils.getUserClass(this))
+                .getGeneric(0).resolve(Object.class);
+        Map<CrawlerContext<I, O>, Long> offsets = Collections.synchronizedMap(new IdentityHashMap<>());
+
+        // 按需从 frontier 取出，不在内存中展开整批 context
+        Iterable<CrawlerContext<I, O>> contexts = () -> new Iterator<CrawlerContext<I, O>>() {
+            private MappedQueue.Record next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    try {
+                        next = queue.poll();
+                    } catch (IOException e) {
+                        throw new CrawlerException("Failed to read frontier: " + name, e);
+                    }
                 }
-            }, crawlerTaskExecutor)
-                    .exceptionally(throwable -> {
-                        log.error("Error during batch execution: ", throwable);
-                        return null;
-                    });
-            futures.add(future);
+                return next != null;
+            }
+
+            @Override
+            public CrawlerContext<I, O> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                CrawlerContext<I, O> context = frontierManager.decode(next.getPayload(), inputType);
+                offsets.put(context, next.getSeq());
+                next = null;
+                return context;
+            }
+        };
+        BatchHooks<I, O, R> hooks = new BatchHooks<>();
+        hooks.onFinished = (context, result) -> frontierManager.ack(queue, offsets.remove(context));
+        int delivered = this.executeBatch(contexts, consumer, false, hooks);
+        try {
+            queue.commit();
+        } catch (IOException e) {
+            log.error("Failed to commit frontier: {}", name, e);
+        }
+        return delivered;
+    }
+
+    /**
+     * @param hooks 检查点恢复、完成回调，执行结束后记录是否整批完成
+     */
+    private int executeBatch(Iterable<CrawlerContext<I, O>> contexts, Consumer<R> consumer, boolean ordered,
+            BatchHooks<I, O, R> hooks) {
+        SubmitWindowManager.Window window = submitWindowManager.open();
+        try {
+            return this.executeBatch(contexts, consumer, ordered, hooks, window);
+        } finally {
+            window.close();
         }
+    }
+
+    /**
+     * @param window 本批量任务独占的提交窗口，重试、续处理不再申请许可
+     */
+    private int executeBatch(Iterable<CrawlerContext<I, O>> contexts, Consumer<R> consumer, boolean ordered,
+            BatchHooks<I, O, R> hooks, SubmitWindowManager.Window window) {
+        BlockingQueue<BatchCompletion<I, O, R>> completions = new LinkedBlockingQueue<>();
+        Map<Integer, CompletableFuture<R>> pending = new ConcurrentHashMap<>();
+        BatchDispatcher<I, O, R> dispatcher = new BatchDispatcher<>(consumer, ordered);
+
+        // 交付已完成的结果
+        Runnable drain = () -> {
+            BatchCompletion<I, O, R> completion;
+            while ((completion = completions.poll()) != null) {
+                dispatcher.dispatch(completion);
+            }
+        };
 
         int BATCH_TIMEOUT_SECONDS = crawlerProperties.getBatchTimeoutSeconds();
-        // 等待所有任务完成或超时
-        CompletableFuture<Void> allFutures = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
-        try {
-            allFutures.get(BATCH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
-        } catch (TimeoutException e) {
-            log.error("Batch processing timed out after {} seconds", BATCH_TIMEOUT_SECONDS);
-            allFutures.cancel(true);
-        } catch (InterruptedException | ExecutionException e) {
-            log.error("Error during batch processing: ", e);
-        }
-
-        // 收集结果
-        List<R> results = new ArrayList<>();
-        for (CompletableFuture<R> future : futures) {
-            if (!future.isCancelled()) {
+        long deadline = BATCH_TIMEOUT_SECONDS > 0
+                ? System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(BATCH_TIMEOUT_SECONDS) : 0;
+
+        int submitted = 0;
+        boolean timedOut = false;
+        boolean skipSeenUrls = this.skipSeenUrls();
+        Iterator<CrawlerContext<I, O>> iterator = contexts.iterator();
+        while (true) {
+            if (!iterator.hasNext()) {
+                // 来源可增长时，等待执行中的 context 完成（onFinished 可能加入新的 context）后再次检查
+                if (!hooks.growing || dispatcher.getReceived() >= submitted) {
+                    break;
+                }
+                long remaining = deadline > 0 ? deadline - System.currentTimeMillis() : Long.MAX_VALUE;
+                if (remaining <= 0) {
+                    // 超时、中断由下面的等待处理
+                    break;
+                }
+                try {
+                    BatchCompletion<I, O, R> completion = completions.poll(remaining, TimeUnit.MILLISECONDS);
+                    if (completion != null) {
+                        dispatcher.dispatch(completion);
+                        drain.run();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                continue;
+            }
+            CrawlerContext<I, O> context = iterator.next();
+            R replayed = hooks.replay(context);
+            if (replayed != null) {
+                // 检查点中已完成，直接交付上次的结果
+                completions.add(new BatchCompletion<>(submitted++, context, replayed));
+                drain.run();
+                continue;
+            }
+            if (skipSeenUrls && seenUrlManager.isSeen(context.getUrl())) {
+                log.debug("Skipping already crawled url: {}", context.getUrl());
+                seenUrlManager.recordSkipped();
+                hooks.finished(context, null);
+                continue;
+            }
+            // 在途任务达到上限时等待，等待期间继续交付结果
+            try {
+                if (!window.acquire(deadline, drain)) {
+                    log.error("Batch processing timed out after {} seconds while submitting, {} tasks submitted",
+                            BATCH_TIMEOUT_SECONDS, submitted);
+                    timedOut = true;
+                    break;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("Thread interrupted while waiting for submit window, {} tasks submitted", submitted, e);
+                timedOut = true;
+                break;
+            }
+            // 批量截止时间下发到每个 context，下载、重试、取页面都以此为准
+            context.restrictDeadline(deadline);
+            int index = submitted++;
+            CompletableFuture<R> future = this.submitAsync(context);
+            pending.put(index, future);
+            future.whenComplete((result, throwable) -> {
+                window.release();
+                pending.remove(index);
                 try {
-                    R result = future.getNow(null);
-                    if (result != null) {
-                        results.add(result);
+                    if (throwable == null) {
+                        hooks.finished(context, result);
                     }
-                } catch (Exception e) {
-                    log.error("Error retrieving result from future: ", e);
+                } finally {
+                    // 回调出错也必须交付，否则调用线程一直等到批量超时
+                    completions.add(new BatchCompletion<>(index, context, result));
+                }
+            });
+            drain.run();
+        }
+
+        // 等待剩余任务完成或超时
+        while (dispatcher.getReceived() < submitted) {
+            long remaining = deadline > 0 ? deadline - System.currentTimeMillis() : Long.MAX_VALUE;
+            if (remaining <= 0) {
+                log.error("Batch processing timed out after {} seconds, {} tasks unfinished", BATCH_TIMEOUT_SECONDS,
+                        pending.size());
+                // 取消会中断正在执行的下载，并释放连接、页面
+                pending.values().forEach(future -> future.cancel(true));
+                timedOut = true;
+                break;
+            }
+            try {
+                BatchCompletion<I, O, R> completion = completions.poll(remaining, TimeUnit.MILLISECONDS);
+                if (completion != null) {
+                    dispatcher.dispatch(completion);
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("Error during batch processing: ", e);
+                pending.values().forEach(future -> future.cancel(true));
+                timedOut = true;
+                break;
             }
         }
-        return results;
+        dispatcher.flush();
+        hooks.complete = !timedOut;
+        return dispatcher.getDelivered();
     }
 
     /**
-     * 执行爬虫处理流程
+     * 提交单个 context 到线程池，异常时结果为 null，取消返回的 future 会中止任务
+     * <p>按 host 限速：令牌不足时由调度线程延迟投递，调用线程不等待。
+     */
+    public CompletableFuture<R> submitAsync(CrawlerContext<I, O> context) {
+        long delayNanos = hostRateLimitManager.reserve(context.getUrl());
+        if (delayNanos <= 0) {
+            return this.executeQuietly(context);
+        }
+        CompletableFuture<R> future = new CompletableFuture<>();
+        crawlerScheduledExecutor.schedule(() -> {
+            if (!future.isDone()) {
+                CompletableFuture<R> execution = this.executeQuietly(context);
+                execution.whenComplete((result, throwable) -> future.complete(result));
+                propagateCancel(future, execution);
+            }
+        }, delayNanos, TimeUnit.NANOSECONDS);
+        return future;
+    }
+
+    private CompletableFuture<R> executeQuietly(CrawlerContext<I, O> context) {
+        CompletableFuture<R> execution = this.executeAsync(context);
+        CompletableFuture<R> future = execution.exceptionally(throwable -> {
+            log.error("BatchCrawlerProcessor error during batch execution: ", throwable);
+            return null;
+        });
+        propagateCancel(future, execution);
+        return future;
+    }
+
+    /**
+     * 执行爬虫处理流程，首次下载在调用线程执行，重试由调度线程按退避时间投递到线程池
      */
     public R execute(CrawlerContext<I, O> context) {
-        O output;
-        R result = null;
+        Execution<R> execution = new Execution<>();
+        this.attempt(context, this.retryPolicy(), 0, execution);
+        try {
+            return execution.future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof CrawlerException ? (CrawlerException) cause : new CrawlerException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            execution.future.cancel(true);
+            throw new CrawlerException("Execution interrupted", e);
+        }
+    }
+
+    /**
+     * 异步执行爬虫处理流程，下载与处理在 crawlerTaskExecutor 中执行，重试等待期间不占用工作线程
+     * <p>取消返回的 future 会中断正在执行的下载，且不再发起重试。
+     */
+    public CompletableFuture<R> executeAsync(CrawlerContext<I, O> context) {
+        Execution<R> execution = new Execution<>();
+        RetryPolicy retryPolicy = this.retryPolicy();
+        this.dispatch(context, execution, () -> this.attempt(context, retryPolicy, 0, execution));
+        return execution.future;
+    }
+
+    /**
+     * 投递到 crawlerTaskExecutor，线程池已满时由调度线程延迟后再次投递，既不丢弃也不在调用线程执行
+     * <p>任务属于已持有提交许可的 context，许可在 context 最终完成时才释放；取消后投递的任务只做清理。
+     */
+    private void dispatch(CrawlerContext<I, O> context, Execution<R> execution, Runnable task) {
         try {
-            this.before(context);
-            // 下载
+            crawlerTaskExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.debug("crawlerTaskExecutor saturated, deferring task {} ms, url: {}", REJECTED_RETRY_MILLIS,
+                    context.getUrl());
+            try {
+                crawlerScheduledExecutor.schedule(() -> this.dispatch(context, execution, task),
+                        REJECTED_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException ex) {
+                log.error("Task rejected by crawlerScheduledExecutor, url: {}", context.getUrl(), ex);
+                this.fail(context, execution.future, new CrawlerException("Task rejected", ex));
+            }
+        }
+    }
+
+    /**
+     * 执行一次下载，成功后处理结果，可重试的失败交给调度线程延迟重试
+     *
+     * @param retryCount 已失败次数
+     */
+    private void attempt(CrawlerContext<I, O> context, RetryPolicy retryPolicy, int retryCount,
+            Execution<R> execution) {
+        if (!execution.enter()) {
+            // 等待重试期间已取消
+            if (retryCount > 0) {
+                this.afterQuietly(context, null);
+            }
+            return;
+        }
+        try {
+            this.doAttempt(context, retryPolicy, retryCount, execution);
+        } finally {
+            execution.exit();
+        }
+    }
+
+    private void doAttempt(CrawlerContext<I, O> context, RetryPolicy retryPolicy, int retryCount,
+            Execution<R> execution) {
+        CompletableFuture<R> future = execution.future;
+        if (retryCount == 0) {
+            try {
+                this.before(context);
+            } catch (Exception e) {
+                log.error("AbstractPageProcessor error during execution: ", e);
+                this.fail(context, future, new CrawlerException(e.getMessage()));
+                return;
+            }
             log.info("AbstractPageProcessor: Starting download for input: {}", context);
-            output = downloadWithRetry(context, retryExceptions());
-            if (output != null) {
-                log.info("AbstractPageProcessor: Download successful for input: {}", context);
-                // 处理
-                context.setOutput(output);
-                result = process(context);
-                log.info("AbstractPageProcessor: Processed Content: {}", result);
-                return result;
-            } else {
-                log.warn("AbstractPageProcessor: Failed to download content for input: {}", JSON.toJSONString(context));
+        }
+        if (context.isExpired()) {
+            log.error("Deadline exceeded before download, url: {}", context.getUrl());
+            this.fail(context, future, new CrawlerException("Deadline exceeded"));
+            return;
+        }
+        if (!circuitBreakerManager.tryAcquire(context.getUrl())) {
+            // 熔断中的 host 直接失败，不再重试
+            log.warn("Circuit breaker open, skipping download, url: {}", context.getUrl());
+            this.fail(context, future, new CrawlerException("Circuit breaker open"));
+            return;
+        }
+        O output;
+        CompletableFuture<O> pendingDownload;
+        try {
+            pendingDownload = this.downloadAsync(context);
+            output = pendingDownload == null ? download(context) : null;
+        } catch (Exception e) {
+            this.onDownloadFailed(context, retryPolicy, retryCount, execution, e);
+            return;
+        }
+        if (pendingDownload != null) {
+            // 异步下载：等待响应期间不占用工作线程，完成后回到 crawlerTaskExecutor 继续
+            execution.track(pendingDownload);
+            pendingDownload.whenComplete((result, throwable) ->
+                    this.resume(context, retryPolicy, retryCount, execution, result, throwable));
+            return;
+        }
+        this.onDownloaded(context, retryPolicy, retryCount, execution, output);
+    }
+
+    /**
+     * 异步下载完成后继续处理
+     */
+    private void resume(CrawlerContext<I, O> context, RetryPolicy retryPolicy, int retryCount,
+            Execution<R> execution, O output, Throwable throwable) {
+        Runnable continuation = () -> {
+            if (!execution.enter()) {
+                // 下载期间已取消
+                circuitBreakerManager.onIgnore(context.getUrl());
+                this.afterQuietly(context, null);
+                return;
+            }
+            try {
+                if (throwable == null) {
+                    this.onDownloaded(context, retryPolicy, retryCount, execution, output);
+                } else {
+                    Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                            ? throwable.getCause() : throwable;
+                    this.onDownloadFailed(context, retryPolicy, retryCount, execution,
+                            cause instanceof Exception ? (Exception) cause : new CrawlerException(cause));
+                }
+            } finally {
+                execution.exit();
+            }
+        };
+        // 回调线程可能是 I/O 线程，线程池满时延迟投递，不在回调线程中执行
+        this.dispatch(context, execution, continuation);
+    }
+
+    private void onDownloadFailed(CrawlerContext<I, O> context, RetryPolicy retryPolicy, int retryCount,
+            Execution<R> execution, Exception e) {
+        if (Thread.currentThread().isInterrupted() || execution.future.isCancelled() || !this.isHostFailure(e)) {
+            // 被取消或与站点健康无关的失败，不计入站点失败
+            circuitBreakerManager.onIgnore(context.getUrl());
+        } else {
+            circuitBreakerManager.onFailure(context.getUrl());
+        }
+        if (!shouldRetryOnException(e, retryExceptions())) {
+            log.error("Download failed with non-retryable exception: {}", e.getMessage(), e);
+            this.fail(context, execution.future, new CrawlerException(e.getMessage()));
+            return;
+        }
+        this.retry(context, retryPolicy, retryCount, execution, e.getMessage());
+    }
+
+    private void onDownloaded(CrawlerContext<I, O> context, RetryPolicy retryPolicy, int retryCount,
+            Execution<R> execution, O output) {
+        CompletableFuture<R> future = execution.future;
+        if (output == null) {
+            // 空结果来自处理器自身的判断，不说明站点异常
+            circuitBreakerManager.onIgnore(context.getUrl());
+            this.retry(context, retryPolicy, retryCount, execution, "empty output");
+            return;
+        }
+        circuitBreakerManager.onSuccess(context.getUrl());
+
+        log.info("AbstractPageProcessor: Download successful for input: {}", context);
+        if (this.pipelined()) {
+            // 流水线模式：下载线程只做 I/O，处理交给 CPU 线程池
+            this.dispatchProcess(context, execution, () -> {
+                if (!execution.enter()) {
+                    this.afterQuietly(context, null);
+                    return;
+                }
+                try {
+                    this.complete(context, output, future);
+                } finally {
+                    execution.exit();
+                }
+            });
+            return;
+        }
+        this.complete(context, output, future);
+    }
+
+    /**
+     * 投递到 crawlerProcessExecutor，队列已满时由调度线程延迟后再次投递，不在下载线程（可能是代理客户端的 I/O 线程）中处理
+     * <p>线程池已关闭时直接失败，避免 future 永远不完成。
+     */
+    private void dispatchProcess(CrawlerContext<I, O> context, Execution<R> execution, Runnable task) {
+        try {
+            crawlerProcessExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            if (crawlerProcessExecutor.getThreadPoolExecutor().isShutdown()) {
+                log.error("crawlerProcessExecutor is shut down, url: {}", context.getUrl());
+                this.fail(context, execution.future, new CrawlerException("Process stage rejected", e));
+                return;
+            }
+            log.debug("crawlerProcessExecutor saturated, deferring process {} ms, url: {}", REJECTED_RETRY_MILLIS,
+                    context.getUrl());
+            try {
+                crawlerScheduledExecutor.schedule(() -> this.dispatchProcess(context, execution, task),
+                        REJECTED_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException ex) {
+                log.error("Process task rejected by crawlerScheduledExecutor, url: {}", context.getUrl(), ex);
+                this.fail(context, execution.future, new CrawlerException("Task rejected", ex));
             }
+        }
+    }
+
+    /**
+     * 处理下载结果
+     */
+    private void complete(CrawlerContext<I, O> context, O output, CompletableFuture<R> future) {
+        R result = null;
+        Exception error = null;
+        try {
+            // 处理
+            context.setOutput(output);
+            result = process(context);
+            log.info("AbstractPageProcessor: Processed Content: {}", result);
         } catch (Exception e) {
             log.error("AbstractPageProcessor error during execution: ", e);
-            throw new CrawlerException(e.getMessage());
+            error = e;
         } finally {
+            this.afterQuietly(context, result);
+        }
+        if (error != null) {
+            future.completeExceptionally(new CrawlerException(error.getMessage()));
+        } else {
+            if (this.skipSeenUrls()) {
+                seenUrlManager.markSeen(context.getUrl());
+            }
+            future.complete(result);
+        }
+    }
+
+    /**
+     * 按重试策略延迟重试，调度线程只负责投递，不执行下载
+     */
+    private void retry(CrawlerContext<I, O> context, RetryPolicy retryPolicy, int retryCount,
+            Execution<R> execution, String reason) {
+        CompletableFuture<R> future = execution.future;
+        int nextCount = retryCount + 1;
+        if (nextCount >= retryPolicy.getMaxRetries()) {
+            log.error("Download failed after {} retries", retryPolicy.getMaxRetries());
+            this.fail(context, future,
+                    new CrawlerException("Download failed after " + retryPolicy.getMaxRetries() + " retries"));
+            return;
+        }
+        long delayMs = retryPolicy.backoffMillis(retryCount);
+        if (delayMs >= context.remainingMillis()) {
+            log.error("Download failed with exception: {}. No time left for retry before deadline", reason);
+            this.fail(context, future, new CrawlerException("Deadline exceeded: " + reason));
+            return;
+        }
+        log.warn("Download failed with exception: {}. Retrying {}/{} in {} ms", reason, nextCount,
+                retryPolicy.getMaxRetries(), delayMs);
+        try {
+            crawlerScheduledExecutor.schedule(() -> this.resubmit(context, retryPolicy, nextCount, execution),
+                    delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            this.fail(context, future, new CrawlerException("Retry rejected", e));
+        }
+    }
+
+    /**
+     * 退避结束后投递重试，与首次提交共用 host 令牌桶，令牌不足时由调度线程再次延迟
+     */
+    private void resubmit(CrawlerContext<I, O> context, RetryPolicy retryPolicy, int retryCount,
+            Execution<R> execution) {
+        long delayNanos = execution.future.isDone() ? 0 : hostRateLimitManager.reserve(context.getUrl());
+        Runnable task = () -> this.attempt(context, retryPolicy, retryCount, execution);
+        if (delayNanos <= 0) {
+            this.dispatch(context, execution, task);
+            return;
+        }
+        try {
+            crawlerScheduledExecutor.schedule(() -> this.dispatch(context, execution, task), delayNanos,
+                    TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            this.fail(context, execution.future, new CrawlerException("Retry rejected", e));
+        }
+    }
+
+    private void fail(CrawlerContext<I, O> context, CompletableFuture<R> future, CrawlerException e) {
+        this.afterQuietly(context, null);
+        future.completeExceptionally(e);
+    }
+
+    private void afterQuietly(CrawlerContext<I, O> context, R result) {
+        try {
             this.after(context, result);
+        } catch (Exception e) {
+            log.error("AbstractPageProcessor error in after: ", e);
         }
-        return null;
     }
 
     @Override
     public abstract O download(CrawlerContext<I, O> context);
 
+    /**
+     * 异步下载，返回 null 时使用同步的 {@link #download(CrawlerContext)}
+     * <p>返回的 future 完成前不占用工作线程；取消任务时会取消该 future。异常与 download 相同，按 retryExceptions 重试。
+     */
+    protected CompletableFuture<O> downloadAsync(CrawlerContext<I, O> context) {
+        return null;
+    }
+
     @Override
     public abstract R process(CrawlerContext<I, O> context);
 
@@ -166,6 +838,60 @@ public abstract class AbsCrawlerProcessor<I, O, R> implements CrawlerProcessor<I
         return Stream.of(TimeoutException.class, CrawlerRetryException.class).collect(Collectors.toList());
     }
 
+    /**
+     * 默认重试策略：crawler.maxRetries 次，以 crawler.retryDelayMs 为基准指数退避
+     */
+    @Override
+    public RetryPolicy retryPolicy() {
+        return RetryPolicy.builder()
+                .maxRetries(crawlerProperties.getMaxRetries())
+                .baseDelayMs(crawlerProperties.getRetryDelayMs())
+                .maxDelayMs(crawlerProperties.getRetry().getMaxDelayMs())
+                .build();
+    }
+
+    /**
+     * 默认缓存时间：crawler.cache.ttls 中按处理器类名配置的值，未配置时取 crawler.cache.default-ttl-ms
+     */
+    @Override
+    public long cacheTtlMillis() {
+        CrawlerProperties.Cache cache = crawlerProperties.getCache();
+        Long ttl = cache.getTtls().get(ClassUtils.getUserClass(this).getSimpleName());
+        return ttl != null ? ttl : cache.getDefaultTtlMs();
+    }
+
+    /**
+     * 请求合并 key，默认为 {@link UrlUtils#requestKey(String, Object)}（规范化 url + 输入参数），返回 null 表示不合并
+     */
+    protected String singleFlightKey(CrawlerContext<I, O> context) {
+        return UrlUtils.requestKey(context.getUrl(), context.getParams());
+    }
+
+    /**
+     * 下载异常是否计入 host 熔断：可重试异常（超时、限流、5xx 等）及连接异常计入，
+     * 404、响应体超限、解析失败等与站点可用性无关的异常不计入
+     */
+    protected boolean isHostFailure(Exception e) {
+        return shouldRetryOnException(e, retryExceptions()) || e instanceof ResourceAccessException
+                || e instanceof HttpServerErrorException;
+    }
+
+    /**
+     * executeBatch 提交前是否跳过已爬取（成功处理过）的 url，需开启 {@code crawler.seen-set.enabled}
+     * <p>默认不跳过：列表页等需要周期性重复爬取，详情页处理器可覆盖此方法返回 true。只有返回 true 的处理器会标记 url。
+     */
+    protected boolean skipSeenUrls() {
+        return false;
+    }
+
+    /**
+     * 是否使用流水线模式：download 在 crawlerTaskExecutor（I/O）执行，process 在 crawlerProcessExecutor（CPU）执行
+     * <p>默认取 {@code crawler.pipeline.enabled}，子类可覆盖此方法单独开启，无需修改 download/process。
+     */
+    protected boolean pipelined() {
+        return crawlerProperties.getPipeline().isEnabled();
+    }
+
     @Override
     public void before(CrawlerContext<I, O> context) {
     }
@@ -190,60 +916,195 @@ public abstract class AbsCrawlerProcessor<I, O, R> implements CrawlerProcessor<I
     }
 
     /**
-     * 带重试机制的下载方法
+     * 判断是否需要重试
      */
-    protected O downloadWithRetry(CrawlerContext<I, O> context, List<Class<? extends Exception>> retryExceptions) {
-        int retryCount = 0;
-        while (retryCount < crawlerProperties.getMaxRetries()) {
-            try {
-                O result = download(context);
-                if (result != null) {
-                    return result;
-                }
-            } catch (Exception e) {
-                if (shouldRetryOnException(e, retryExceptions)) {
-                    handleRetryException(e, retryCount);
-                } else {
-                    log.error("Download failed with non-retryable exception: {}", e.getMessage(), e);
-                    throw new CrawlerException(e.getMessage());
+    private boolean shouldRetryOnException(Exception e, List<Class<? extends Exception>> retryExceptions) {
+        for (Class<? extends Exception> exceptionType : retryExceptions) {
+            if (exceptionType.isInstance(e)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 取消 source 时同时取消 target（CompletableFuture 的派生 future 被取消时不会取消上游）
+     */
+    private static void propagateCancel(CompletableFuture<?> source, CompletableFuture<?> target) {
+        source.whenComplete((result, throwable) -> {
+            if (source.isCancelled()) {
+                target.cancel(true);
+            }
+        });
+    }
+
+    /**
+     * 单次执行的状态，记录正在执行下载的线程，取消时中断该线程
+     */
+    private static final class Execution<R> {
+
+        private final CompletableFuture<R> future = new CompletableFuture<>();
+        private Thread runner;
+
+        /**
+         * 进行中的异步下载
+         */
+        private CompletableFuture<?> download;
+
+        private Execution() {
+            future.whenComplete((result, throwable) -> {
+                if (future.isCancelled()) {
+                    this.interruptRunner();
                 }
+            });
+        }
+
+        private synchronized void track(CompletableFuture<?> download) {
+            this.download = download;
+            if (future.isCancelled()) {
+                download.cancel(true);
             }
+        }
 
-            retryCount++;
-            sleepForRetry();
+        private synchronized boolean enter() {
+            if (future.isDone()) {
+                return false;
+            }
+            runner = Thread.currentThread();
+            return true;
+        }
+
+        private synchronized void exit() {
+            runner = null;
+            if (future.isCancelled()) {
+                // 清除因取消产生的中断标记，避免影响线程后续任务
+                Thread.interrupted();
+            }
+        }
+
+        private synchronized void interruptRunner() {
+            if (runner != null) {
+                runner.interrupt();
+            }
+            if (download != null) {
+                download.cancel(true);
+            }
         }
-        log.error("Download failed after {} retries", crawlerProperties.getMaxRetries());
-        throw new CrawlerException("Download failed after " + crawlerProperties.getMaxRetries() + " retries");
     }
 
     /**
-     * 判断是否需要重试
+     * 批量执行的扩展点
      */
-    private boolean shouldRetryOnException(Exception e, List<Class<? extends Exception>> retryExceptions) {
-        for (Class<? extends Exception> exceptionType : retryExceptions) {
-            if (exceptionType.isInstance(e)) {
-                return true;
+    private static final class BatchHooks<I, O, R> {
+
+        /**
+         * 提交前查询已完成的结果，不为 null 时跳过执行直接交付，在调用线程中执行
+         */
+        private Function<CrawlerContext<I, O>, R> replay;
+
+        /**
+         * context 执行完成（含失败、因已爬取跳过，不含取消）时的回调，在工作线程中执行
+         */
+        private BiConsumer<CrawlerContext<I, O>, R> onFinished;
+
+        /**
+         * 来源是否可在执行中增长：迭代器暂时为空时等待执行中的 context 完成后再次检查
+         */
+        private boolean growing;
+
+        /**
+         * 是否整批执行完成（未超时、未中断）
+         */
+        private volatile boolean complete;
+
+        /**
+         * 查询已完成的结果，出错时按未完成处理，重新执行
+         */
+        private R replay(CrawlerContext<I, O> context) {
+            if (replay == null) {
+                return null;
+            }
+            try {
+                return replay.apply(context);
+            } catch (RuntimeException e) {
+                log.error("Failed to replay context {}, executing again", context.getUrl(), e);
+                return null;
+            }
+        }
+
+        /**
+         * 执行完成回调，出错只记录日志，不影响结果交付
+         */
+        private void finished(CrawlerContext<I, O> context, R result) {
+            if (onFinished == null) {
+                return;
+            }
+            try {
+                onFinished.accept(context, result);
+            } catch (RuntimeException e) {
+                log.error("Error in finished callback for context {}", context.getUrl(), e);
             }
         }
-        return false;
     }
 
     /**
-     * 处理重试异常
+     * 单个 context 的完成结果
      */
-    private void handleRetryException(Exception e, int retryCount) {
-        log.warn("Download failed with exception: {}. Retrying {}/{}", e.getMessage(), retryCount + 1, crawlerProperties.getMaxRetries());
+    @AllArgsConstructor
+    private static final class BatchCompletion<I, O, R> {
+        private final int index;
+        private final CrawlerContext<I, O> context;
+        private final R result;
     }
 
     /**
-     * 等待重试
+     * 批量结果分发，只在调用线程中使用
      */
-    private void sleepForRetry() {
-        try {
-            Thread.sleep(crawlerProperties.getRetryDelayMs());
-        } catch (InterruptedException ie) {
-            Thread.currentThread().interrupt();
-            log.error("Thread interrupted while waiting for retry", ie);
+    private static final class BatchDispatcher<I, O, R> {
+
+        private final Consumer<R> consumer;
+        private final boolean ordered;
+        private final Map<Integer, BatchCompletion<I, O, R>> reorderBuffer = new HashMap<>();
+        private int nextIndex;
+        @Getter
+        private int received;
+        @Getter
+        private int delivered;
+
+        private BatchDispatcher(Consumer<R> consumer, boolean ordered) {
+            this.consumer = consumer;
+            this.ordered = ordered;
+        }
+
+        void dispatch(BatchCompletion<I, O, R> completion) {
+            received++;
+            if (!ordered) {
+                deliver(completion);
+                return;
+            }
+            reorderBuffer.put(completion.index, completion);
+            BatchCompletion<I, O, R> next;
+            while ((next = reorderBuffer.remove(nextIndex)) != null) {
+                nextIndex++;
+                deliver(next);
+            }
+        }
+
+        /**
+         * 超时后按顺序交付暂存的结果，跳过未完成的部分
+         */
+        void flush() {
+            reorderBuffer.keySet().stream().sorted().collect(Collectors.toList())
+                    .forEach(index -> deliver(reorderBuffer.remove(index)));
+        }
+
+        private void deliver(BatchCompletion<I, O, R> completion) {
+            // 释放页面输出，避免已交付的 context 继续持有大对象
+            completion.context.setOutput(null);
+            if (completion.result != null) {
+                delivered++;
+                consumer.accept(completion.result);
+            }
         }
     }
 }
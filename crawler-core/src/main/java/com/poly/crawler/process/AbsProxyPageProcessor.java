@@ -0,0 +1,105 @@
+package com.poly.crawler.process;
+
+import com.poly.crawler.exception.CrawlerRetryException;
+import com.poly.crawler.manager.ProxyHttpManager;
+import com.poly.crawler.manager.SingleFlightManager;
+import com.poly.crawler.model.CrawlerContext;
+import com.poly.crawler.model.HttpBody;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import javax.annotation.Resource;
+
+/**
+ * AbsProxyPageProcessor 走代理下载页面的处理器基类
+ * <p>统一下载流程：相同请求在途时通过 {@link SingleFlightManager} 复用响应；{@link #cacheTtlMillis()} 大于 0 时
+ * 下载字符串并使用响应缓存，否则下载未解压的 {@link HttpBody}，由子类边解压边解析。
+ * 子类只需实现把响应转换为 output 的两个 parse 方法，每个 context 各自得到独立的 output。
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+public abstract class AbsProxyPageProcessor<I, O, R> extends AbsCrawlerProcessor<I, O, R> {
+
+    @Resource
+    private ProxyHttpManager proxyHttpManager;
+
+    @Resource
+    private SingleFlightManager singleFlightManager;
+
+    /**
+     * 同步下载
+     * <p>不缓存响应时直接把（压缩的）响应体交给 {@link #parse(CrawlerContext, HttpBody)}，不再生成完整的字节数组和字符串；
+     * 开启响应缓存时缓存的是字符串，交给 {@link #parse(CrawlerContext, String)}。
+     */
+    @Override
+    public O download(CrawlerContext<I, O> context) {
+        if (cacheTtlMillis() > 0) {
+            String html = singleFlightManager.execute(singleFlightKey(context), context.getDeadline(),
+                    () -> proxyHttpManager.get(context.getUrl(), context.getDeadline(), cacheTtlMillis()));
+            return this.parse(context, requireResponse(html));
+        }
+        HttpBody body = singleFlightManager.execute(singleFlightKey(context), context.getDeadline(),
+                () -> proxyHttpManager.getBody(context.getUrl(), context.getDeadline(), maxBodyBytes()));
+        return this.parse(context, requireResponse(body));
+    }
+
+    /**
+     * 异步下载：请求由代理客户端的 I/O 线程完成，parse 在 crawlerTaskExecutor 中进行
+     *
+     * @see #download(CrawlerContext)
+     */
+    @Override
+    protected CompletableFuture<O> downloadAsync(CrawlerContext<I, O> context) {
+        if (cacheTtlMillis() > 0) {
+            CompletableFuture<String> html = singleFlightManager.executeAsync(singleFlightKey(context),
+                    () -> proxyHttpManager.getAsync(context.getUrl(), context.getDeadline(), cacheTtlMillis()));
+            return parseAsync(html, response -> this.parse(context, requireResponse(response)));
+        }
+        CompletableFuture<HttpBody> body = singleFlightManager.executeAsync(singleFlightKey(context),
+                () -> proxyHttpManager.getBodyAsync(context.getUrl(), context.getDeadline(), maxBodyBytes()));
+        return parseAsync(body, response -> this.parse(context, requireResponse(response)));
+    }
+
+    /**
+     * 不缓存响应时的响应体（传输及解压后）字节数上限，0 表示不限制，默认取 crawler.http.maxBodyBytes
+     * <p>开启响应缓存时下载的是完整字符串，始终使用 crawler.http.maxBodyBytes。
+     */
+    protected long maxBodyBytes() {
+        return crawlerProperties.getHttp().getMaxBodyBytes();
+    }
+
+    /**
+     * 由缓存的响应字符串构造 output
+     *
+     * @param html 响应字符串，不为 null
+     */
+    protected abstract O parse(CrawlerContext<I, O> context, String html);
+
+    /**
+     * 由未解压的响应体构造 output，通过 {@link HttpBody#openStream()} 边解压边读取，超过 {@link #maxBodyBytes()} 时中止
+     *
+     * @param body 响应体，不为 null，可能与其他 context 共享
+     */
+    protected abstract O parse(CrawlerContext<I, O> context, HttpBody body);
+
+    /**
+     * 取消返回的 future 时同时取消下载
+     */
+    private <T> CompletableFuture<O> parseAsync(CompletableFuture<T> response, Function<T, O> parser) {
+        CompletableFuture<O> output = response.thenApplyAsync(parser, crawlerTaskExecutor);
+        output.whenComplete((result, throwable) -> {
+            if (output.isCancelled()) {
+                response.cancel(true);
+            }
+        });
+        return output;
+    }
+
+    private static <T> T requireResponse(T response) {
+        if (response == null) {
+            throw new CrawlerRetryException("异常重试");
+        }
+        return response;
+    }
+}
@@ -0,0 +1,215 @@
+package com.poly.crawler.process;
+
+import com.poly.crawler.exception.CrawlerException;
+import com.poly.crawler.model.CrawlerContext;
+import com.poly.crawler.properties.CrawlerProperties;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Resource;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 多阶段流水线执行器（总分调度）
+ * <p>上一阶段每产出一条结果，立即通过下一阶段的 {@link CrawlerProcessor#addAllCrawlerContext(List)} 构造 context 并提交，
+ * 不等待上一阶段整体完成。每个阶段有独立的并发上限，超出的 context 在该阶段排队。
+ *
+ * <ul>
+ *     <li>第一阶段通过 {@link CrawlerProcessor#addCrawlerContext()} 构造单个 context，其结果为列表，逐条交给第二阶段。</li>
+ *     <li>之后每个阶段的单条结果以单元素列表调用下一阶段的 addAllCrawlerContext。</li>
+ *     <li>最后一个阶段的结果按完成顺序返回。</li>
+ * </ul>
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+public class CrawlerChainExecutor {
+
+    @Resource
+    private CrawlerProperties crawlerProperties;
+
+    /**
+     * 流水线执行各阶段
+     *
+     * @param stages 按执行顺序排列的阶段
+     * @return 最后一个阶段的结果
+     */
+    @SuppressWarnings("unchecked")
+    public <R> List<R> execute(List<Stage> stages) {
+        if (stages == null || stages.isEmpty()) {
+            throw new CrawlerException("stages is empty");
+        }
+        int batchTimeoutSeconds = crawlerProperties.getBatchTimeoutSeconds();
+        long deadline = batchTimeoutSeconds > 0
+                ? System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(batchTimeoutSeconds) : 0;
+
+        ChainRun run = new ChainRun(stages, deadline);
+        run.enqueue(0, Collections.singletonList(stages.get(0).processor().addCrawlerContext()));
+        run.await();
+        return (List<R>) run.results;
+    }
+
+    /**
+     * 单个阶段
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Stage {
+
+        /**
+         * 阶段处理器
+         */
+        private final AbsCrawlerProcessor<?, ?, ?> processor;
+
+        /**
+         * 阶段并发上限
+         */
+        private final int concurrency;
+
+        @SuppressWarnings("unchecked")
+        private AbsCrawlerProcessor<Object, Object, Object> processor() {
+            return (AbsCrawlerProcessor<Object, Object, Object>) processor;
+        }
+    }
+
+    /**
+     * 一次流水线执行的状态，只在调用线程中修改（完成队列除外）
+     */
+    private static final class ChainRun {
+
+        private final List<Stage> stages;
+        private final long deadline;
+        private final List<Queue<CrawlerContext<Object, Object>>> backlogs = new ArrayList<>();
+        private final int[] running;
+        private final BlockingQueue<StageCompletion> completions = new LinkedBlockingQueue<>();
+        private final Map<Long, CompletableFuture<Object>> pending = new ConcurrentHashMap<>();
+        private final AtomicLong sequence = new AtomicLong();
+        private final List<Object> results = new ArrayList<>();
+
+        private ChainRun(List<Stage> stages, long deadline) {
+            this.stages = stages;
+            this.deadline = deadline;
+            this.running = new int[stages.size()];
+            stages.forEach(stage -> backlogs.add(new ArrayDeque<>()));
+        }
+
+        private void enqueue(int stage, List<CrawlerContext<Object, Object>> contexts) {
+            if (contexts == null) {
+                return;
+            }
+            for (CrawlerContext<Object, Object> context : contexts) {
+                context.restrictDeadline(deadline);
+                backlogs.get(stage).add(context);
+            }
+        }
+
+        /**
+         * 在各阶段并发上限内提交排队的 context
+         */
+        private void pump() {
+            for (int stage = 0; stage < stages.size(); stage++) {
+                Queue<CrawlerContext<Object, Object>> backlog = backlogs.get(stage);
+                int concurrency = Math.max(1, stages.get(stage).getConcurrency());
+                while (running[stage] < concurrency && !backlog.isEmpty()) {
+                    CrawlerContext<Object, Object> context = backlog.poll();
+                    CompletableFuture<Object> future;
+                    try {
+                        future = stages.get(stage).processor().submitAsync(context);
+                    } catch (Exception e) {
+                        log.error("Failed to submit stage {} context, url: {}", stage, context.getUrl(), e);
+                        continue;
+                    }
+                    running[stage]++;
+                    long id = sequence.incrementAndGet();
+                    int current = stage;
+                    pending.put(id, future);
+                    future.whenComplete((result, throwable) -> {
+                        pending.remove(id);
+                        completions.add(new StageCompletion(current, result));
+                    });
+                }
+            }
+        }
+
+        private boolean idle() {
+            for (int stage = 0; stage < stages.size(); stage++) {
+                if (running[stage] > 0 || !backlogs.get(stage).isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void await() {
+            while (true) {
+                pump();
+                if (idle()) {
+                    return;
+                }
+                long remaining = deadline > 0 ? deadline - System.currentTimeMillis() : Long.MAX_VALUE;
+                if (remaining <= 0) {
+                    log.error("Chain processing timed out, {} tasks unfinished", pending.size());
+                    pending.values().forEach(future -> future.cancel(true));
+                    return;
+                }
+                try {
+                    StageCompletion completion = completions.poll(remaining, TimeUnit.MILLISECONDS);
+                    if (completion != null) {
+                        this.onComplete(completion);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    log.error("Error during chain processing: ", e);
+                    pending.values().forEach(future -> future.cancel(true));
+                    return;
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void onComplete(StageCompletion completion) {
+            int stage = completion.stage;
+            running[stage]--;
+            if (completion.result == null) {
+                return;
+            }
+            if (stage == stages.size() - 1) {
+                results.add(completion.result);
+                return;
+            }
+            // 第一阶段的结果本身是列表，其余阶段按单条结果向下传递
+            List<Object> items = stage == 0 && completion.result instanceof List
+                    ? (List<Object>) completion.result : Collections.singletonList(completion.result);
+            AbsCrawlerProcessor<Object, Object, Object> next = stages.get(stage + 1).processor();
+            for (Object item : items) {
+                try {
+                    enqueue(stage + 1, next.addAllCrawlerContext(Collections.singletonList(item)));
+                } catch (Exception e) {
+                    // 单条结果交接失败只丢弃该条，不影响其余结果，也不让整条流水线等到截止时间
+                    log.error("Failed to build stage {} contexts from result: {}", stage + 1, item, e);
+                }
+            }
+        }
+    }
+
+    @AllArgsConstructor
+    private static final class StageCompletion {
+        private final int stage;
+        private final Object result;
+    }
+}
@@ -1,6 +1,7 @@
 package com.poly.crawler.process;
 
 import com.poly.crawler.model.CrawlerContext;
+import com.poly.crawler.model.RetryPolicy;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 
@@ -45,6 +46,16 @@ public interface CrawlerProcessor<I, O, R> {
      */
     List<Class<? extends Exception>> retryExceptions();
 
+    /**
+     * 重试策略（最大次数、退避时间）
+     */
+    RetryPolicy retryPolicy();
+
+    /**
+     * 下载响应的缓存时间（毫秒），小于等于 0 表示不缓存
+     */
+    long cacheTtlMillis();
+
     /**
      * before
      */
@@ -48,7 +48,7 @@ public abstract class DefaultAbsHttpProcessor<I extends HttpRequest, O, R> exten
             throw new CrawlerException("Params cannot be null");
         }
         if (HttpMethod.GET.equals(input.getMethod())) {
-            return httpManager.get(context.getUrl(), input.getHeaders(), this.getOutputType());
+            return httpManager.get(context.getUrl(), input.getHeaders(), this.getOutputType(), cacheTtlMillis());
         }
         return httpManager.download(context.getUrl(), input.getFormat(), input.getParams(), this.getOutputType());
     }
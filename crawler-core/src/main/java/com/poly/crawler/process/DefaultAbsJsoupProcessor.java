@@ -1,38 +1,268 @@
 package com.poly.crawler.process;
 
-import com.poly.crawler.exception.CrawlerRetryException;
-import com.poly.crawler.manager.ProxyHttpManager;
+import com.poly.crawler.exception.CrawlerException;
+import com.poly.crawler.model.CrawlRule;
 import com.poly.crawler.model.CrawlerContext;
-import javax.annotation.Resource;
+import com.poly.crawler.model.HttpBody;
+import com.poly.crawler.util.BloomFilter;
+import com.poly.crawler.util.CharsetUtils;
+import com.poly.crawler.util.UrlUtils;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
 
 /**
  * DefaultAbsJsoupProcessor 静态页面处理类 （默认使用代理处理）
+ * <p>通过 {@link #crawl(CrawlRule, Consumer)} 按广度优先跟随页面中的链接爬取整个站点或栏目：
+ * 已完成页面中的链接经规则过滤、去重后立即加入 frontier，与其他页面并发执行。
  *
  * @author guojund
  * @version 2024/12/30
  * @since 2024-12-30
  */
 @Slf4j
-public abstract class DefaultAbsJsoupProcessor<I, R> extends AbsCrawlerProcessor<I, Document, R> {
+public abstract class DefaultAbsJsoupProcessor<I, R> extends AbsProxyPageProcessor<I, Document, R> {
 
-    @Resource
-    private ProxyHttpManager proxyHttpManager;
+    /**
+     * 链接跟随爬取时 context 深度在 extMap 中的 key
+     */
+    public static final String DEPTH_KEY = "crawlDepth";
 
+    private static final String DEFAULT_LINK_SELECTOR = "a[href]";
+    private static final long DEFAULT_EXPECTED_INSERTIONS = 1_000_000L;
+    private static final double DEFAULT_FPP = 0.01;
+
+    /**
+     * 以页面 url 为 baseUri，相对链接可通过 absUrl 解析
+     */
+    @Override
+    protected Document parse(CrawlerContext<I, Document> context, String html) {
+        return Jsoup.parse(html, context.getUrl());
+    }
+
+    /**
+     * 边解压边解析，不再生成完整的字节数组和字符串
+     */
     @Override
-    public Document download(CrawlerContext<I, Document> context) {
+    protected Document parse(CrawlerContext<I, Document> context, HttpBody body) {
+        try (BufferedInputStream in = new BufferedInputStream(body.openStream())) {
+            Charset charset = CharsetUtils.detect(in, body.getContentType());
+            return Jsoup.parse(in, charset.name(), context.getUrl());
+        } catch (IOException e) {
+            throw new CrawlerException("解析响应异常，url：" + context.getUrl() + "，" + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 以 {@link #addAllCrawlerContext()} 为种子，跟随链接爬取
+     *
+     * @see #crawl(List, CrawlRule, Consumer)
+     */
+    public int crawl(CrawlRule rule, Consumer<R> consumer) {
+        return this.crawl(this.addAllCrawlerContext(), rule, consumer);
+    }
 
-        String html = proxyHttpManager.get(context.getUrl());
+    /**
+     * 广度优先跟随链接爬取
+     * <p>每个页面完成后从 Document 中提取链接，按深度、include/exclude、host 预算、总页数过滤，
+     * 经本次爬取的布隆过滤器去重后加入 frontier；frontier 为空且没有执行中的页面时结束。
+     * 批量超时、提交窗口等与 {@link #executeBatch(Iterable, Consumer)} 相同。
+     *
+     * @param seeds    种子 context，深度为 0
+     * @param rule     爬取规则
+     * @param consumer 结果消费者，只会在调用线程中串行执行，null 结果不会交付
+     * @return 交付的结果数量
+     */
+    public int crawl(List<CrawlerContext<I, Document>> seeds, CrawlRule rule, Consumer<R> consumer) {
+        LinkFrontier<I> frontier = new LinkFrontier<>(rule);
+        seeds.forEach(seed -> frontier.registerSeedHost(seed.getUrl()));
+        seeds.forEach(seed -> frontier.offer(seed, 0));
+        int delivered = this.executeBatch(frontier, consumer, (context, result) -> {
+            try {
+                this.followLinks(frontier, context);
+            } catch (Exception e) {
+                log.error("Failed to extract links, url: {}", context.getUrl(), e);
+            }
+        });
+        log.info("Crawl finished, {} pages admitted, {} links discarded, {} results delivered",
+                frontier.admitted.get(), frontier.discarded.get(), delivered);
+        return delivered;
+    }
+
+    /**
+     * context 在链接跟随爬取中的深度，种子为 0
+     */
+    public static int depth(CrawlerContext<?, ?> context) {
+        Map<String, Object> extMap = context.getExtMap();
+        Object depth = extMap == null ? null : extMap.get(DEPTH_KEY);
+        return depth instanceof Number ? ((Number) depth).intValue() : 0;
+    }
+
+    /**
+     * 由链接构造子页面 context，默认沿用父页面的输入参数，返回 null 表示不跟随
+     *
+     * @param parent 链接所在页面
+     * @param url    规范化后的绝对 url
+     */
+    protected CrawlerContext<I, Document> followLink(CrawlerContext<I, Document> parent, String url) {
+        return CrawlerContext.<I, Document>builder().url(url).params(parent.getParams()).build();
+    }
 
-        if (html == null) {
-            throw new CrawlerRetryException("异常重试");
+    private void followLinks(LinkFrontier<I> frontier, CrawlerContext<I, Document> context) {
+        Document document = context.getOutput();
+        int depth = depth(context);
+        if (document == null || depth >= frontier.rule.getMaxDepth()) {
+            return;
+        }
+        for (Element link : document.select(frontier.linkSelector)) {
+            String url = link.absUrl("href");
+            if (url.isEmpty() || !(url.startsWith("http://") || url.startsWith("https://"))) {
+                continue;
+            }
+            CrawlerContext<I, Document> child = this.followLink(context, UrlUtils.canonicalize(url));
+            if (child != null) {
+                frontier.offer(child, depth + 1);
+            }
         }
-        return Jsoup.parse(html);
     }
 
+
     @Override
     public abstract R process(CrawlerContext<I, Document> context);
 
+    /**
+     * 单次链接跟随爬取的 frontier，只能迭代一次
+     * <p>hasNext 不阻塞：frontier 暂时为空时返回 false，由 executeBatch 等待执行中的页面完成（新链接已入队）后再次检查。
+     */
+    private static final class LinkFrontier<I> implements Iterable<CrawlerContext<I, Document>> {
+
+        private final CrawlRule rule;
+        private final String linkSelector;
+        private final List<Pattern> includes;
+        private final List<Pattern> excludes;
+        private final BloomFilter seen;
+        private final Set<String> seedHosts = ConcurrentHashMap.newKeySet();
+        private final Map<String, AtomicInteger> hostPages = new ConcurrentHashMap<>();
+        private final Queue<CrawlerContext<I, Document>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicLong admitted = new AtomicLong();
+        private final AtomicLong discarded = new AtomicLong();
+
+        private LinkFrontier(CrawlRule rule) {
+            this.rule = rule;
+            this.linkSelector = rule.getLinkSelector() != null ? rule.getLinkSelector() : DEFAULT_LINK_SELECTOR;
+            this.includes = compile(rule.getIncludePatterns());
+            this.excludes = compile(rule.getExcludePatterns());
+            this.seen = BloomFilter.create(
+                    rule.getExpectedInsertions() > 0 ? rule.getExpectedInsertions() : DEFAULT_EXPECTED_INSERTIONS,
+                    rule.getFpp() > 0 ? rule.getFpp() : DEFAULT_FPP, false);
+        }
+
+        private static List<Pattern> compile(List<String> patterns) {
+            return patterns == null ? Collections.emptyList()
+                    : patterns.stream().map(Pattern::compile).collect(Collectors.toList());
+        }
+
+        private void registerSeedHost(String url) {
+            seedHosts.add(UrlUtils.getHost(url));
+        }
+
+        /**
+         * 过滤、去重后加入 frontier
+         */
+        private void offer(CrawlerContext<I, Document> context, int depth) {
+            String url = context.getUrl();
+            String host = UrlUtils.getHost(url);
+            if (!admissible(url, host, depth)) {
+                discarded.incrementAndGet();
+                return;
+            }
+            ConcurrentHashMap<String, Object> extMap = context.getExtMap();
+            if (extMap == null) {
+                extMap = new ConcurrentHashMap<>();
+                context.setExtMap(extMap);
+            }
+            extMap.put(DEPTH_KEY, depth);
+            queue.add(context);
+        }
+
+        private boolean admissible(String url, String host, int depth) {
+            // 种子不受 host、url 规则限制
+            if (depth > 0) {
+                if (!rule.isFollowExternal() && !seedHosts.contains(host)) {
+                    return false;
+                }
+                if (!includes.isEmpty() && includes.stream().noneMatch(p -> p.matcher(url).find())) {
+                    return false;
+                }
+                if (excludes.stream().anyMatch(p -> p.matcher(url).find())) {
+                    return false;
+                }
+            }
+            synchronized (seen) {
+                if (!seen.put(UrlUtils.canonicalize(url))) {
+                    return false;
+                }
+            }
+            AtomicInteger hostCount = null;
+            if (rule.getMaxPagesPerHost() > 0) {
+                hostCount = hostPages.computeIfAbsent(host, key -> new AtomicInteger());
+                if (hostCount.incrementAndGet() > rule.getMaxPagesPerHost()) {
+                    hostCount.decrementAndGet();
+                    return false;
+                }
+            }
+            if (admitted.incrementAndGet() > rule.getMaxPages() && rule.getMaxPages() > 0) {
+                admitted.decrementAndGet();
+                if (hostCount != null) {
+                    hostCount.decrementAndGet();
+                }
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public Iterator<CrawlerContext<I, Document>> iterator() {
+            return new Iterator<CrawlerContext<I, Document>>() {
+                private CrawlerContext<I, Document> next;
+
+                @Override
+                public boolean hasNext() {
+                    if (next == null) {
+                        next = queue.poll();
+                    }
+                    return next != null;
+                }
+
+                @Override
+                public CrawlerContext<I, Document> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    CrawlerContext<I, Document> context = next;
+                    next = null;
+                    return context;
+                }
+            };
+        }
+    }
+
 }
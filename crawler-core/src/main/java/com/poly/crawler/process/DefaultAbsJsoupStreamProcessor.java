@@ -0,0 +1,149 @@
+package com.poly.crawler.process;
+
+import com.poly.crawler.exception.CrawlerException;
+import com.poly.crawler.model.CrawlerContext;
+import com.poly.crawler.model.HttpBody;
+import com.poly.crawler.util.CharsetUtils;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+
+/**
+ * DefaultAbsJsoupStreamProcessor 超大静态页面的流式处理类 （默认使用代理处理）
+ * <p>与 {@link DefaultAbsJsoupProcessor} 不同，不先构建完整的 Document：process 阶段通过 jsoup {@link StreamParser}
+ * 边解析边取出匹配 {@link #itemSelector()} 的元素，交给 {@link #processItem(CrawlerContext, Element)} 后立即从文档中移除，
+ * 十万行的列表页也只占用有限内存。
+ *
+ * <ul>
+ *     <li>每个条目解析完成即回调 {@link #onItem(CrawlerContext, Object)}，可在页面解析结束前写库或推送。</li>
+ *     <li>页面级信息（标题等）可在 processItem 中通过 {@code context.getOutput().document()} 读取已解析的部分。</li>
+ *     <li>解析器在 {@link #after(CrawlerContext, List)} 中关闭，子类覆盖 after 时需调用 super.after。</li>
+ * </ul>
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Slf4j
+public abstract class DefaultAbsJsoupStreamProcessor<I, T> extends AbsProxyPageProcessor<I, StreamParser, List<T>> {
+
+    /**
+     * 默认响应体上限：边解压边解析，只缓冲压缩的响应体，可以远大于 crawler.http.maxBodyBytes
+     */
+    private static final long STREAM_MAX_BODY_BYTES = 256L * 1024 * 1024;
+
+    private volatile Evaluator itemEvaluator;
+
+    /**
+     * 默认取 crawler.http.maxBodyBytes 与 256MB 中的较大值，crawler.http.maxBodyBytes 为 0 时不限制
+     */
+    @Override
+    protected long maxBodyBytes() {
+        long maxBodyBytes = super.maxBodyBytes();
+        return maxBodyBytes <= 0 ? 0 : Math.max(maxBodyBytes, STREAM_MAX_BODY_BYTES);
+    }
+
+    /**
+     * 由缓存的字符串打开流式解析器，此时尚未解析
+     */
+    @Override
+    protected StreamParser parse(CrawlerContext<I, StreamParser> context, String html) {
+        return new StreamParser(Parser.htmlParser()).parse(html, context.getUrl());
+    }
+
+    /**
+     * 由未解压的响应体打开流式解析器，此时尚未解析，process 阶段边解压边解析
+     */
+    @Override
+    protected StreamParser parse(CrawlerContext<I, StreamParser> context, HttpBody body) {
+        try {
+            BufferedInputStream in = new BufferedInputStream(body.openStream());
+            return new StreamParser(Parser.htmlParser())
+                    .parse(CharsetUtils.reader(in, body.getContentType()), context.getUrl());
+        } catch (IOException e) {
+            throw new CrawlerException("解析响应异常，url：" + context.getUrl() + "，" + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 边解析边处理条目，已处理的元素从文档中移除
+     *
+     * @return onItem 返回 true 的条目
+     */
+    @Override
+    public List<T> process(CrawlerContext<I, StreamParser> context) {
+        StreamParser parser = context.getOutput();
+        Evaluator evaluator = this.itemEvaluator();
+        List<T> items = new ArrayList<>();
+        int count = 0;
+        try {
+            Element element;
+            while ((element = parser.selectNext(evaluator)) != null) {
+                if (Thread.currentThread().isInterrupted() || context.isExpired()) {
+                    throw new CrawlerException("解析被中断或超过截止时间，已处理 " + count + " 条，url：" + context.getUrl());
+                }
+                T item = this.processItem(context, element);
+                // 已处理的子树不再需要，移除后文档不随条目数增长
+                element.remove();
+                count++;
+                if (item != null && this.onItem(context, item)) {
+                    items.add(item);
+                }
+            }
+        } catch (IOException e) {
+            throw new CrawlerException("解析响应异常，url：" + context.getUrl() + "，" + e.getMessage(), e);
+        } finally {
+            parser.close();
+        }
+        log.info("Stream parsing finished, {} items processed, url: {}", count, context.getUrl());
+        return items;
+    }
+
+    private Evaluator itemEvaluator() {
+        Evaluator evaluator = itemEvaluator;
+        if (evaluator == null) {
+            evaluator = QueryParser.parse(this.itemSelector());
+            itemEvaluator = evaluator;
+        }
+        return evaluator;
+    }
+
+    /**
+     * 条目选择器，如 {@code "table.list > tbody > tr"}
+     */
+    protected abstract String itemSelector();
+
+    /**
+     * 处理单个条目，元素及其子树已解析完整，返回 null 表示跳过
+     */
+    protected abstract T processItem(CrawlerContext<I, StreamParser> context, Element item);
+
+    /**
+     * 条目处理完成后立即回调，默认放入结果列表
+     * <p>需要在页面解析结束前交付结果时覆盖此方法（写库、推送队列等），返回 false 则不放入结果列表，结果占用的内存也不随条目数增长。
+     *
+     * @return 是否放入 process 返回的结果列表
+     */
+    protected boolean onItem(CrawlerContext<I, StreamParser> context, T item) {
+        return true;
+    }
+
+    /**
+     * 关闭解析器，process 中途失败时也会调用
+     */
+    @Override
+    public void after(CrawlerContext<I, StreamParser> context, List<T> result) {
+        StreamParser parser = context.getOutput();
+        if (parser != null) {
+            parser.close();
+        }
+    }
+
+}
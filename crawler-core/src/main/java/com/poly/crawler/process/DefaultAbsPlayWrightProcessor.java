@@ -30,7 +30,7 @@ public abstract class DefaultAbsPlayWrightProcessor<I, R> extends AbsCrawlerProc
     public Page download(CrawlerContext<I, Page> context) {
         Page page = context.getOutput();
         if (page == null) {
-            page = playbackManager.getPage();
+            page = playbackManager.getPage(context.getDeadline());
             context.setOutput(page);
             // 监听事件，监听请求 或者 监听事件，监听页面加载完成
             beforeNavigateUrl(page);
@@ -38,9 +38,10 @@ public abstract class DefaultAbsPlayWrightProcessor<I, R> extends AbsCrawlerProc
             // 打开目标 URL
             String url = context.getUrl();
             log.info("Navigating to URL: {}", url);
-            page.navigate(url);
+            playbackManager.navigate(page, url, context.getDeadline());
         } else {
-            page.reload();
+            playbackManager.applyDeadline(page, context.getDeadline());
+            playbackManager.reload(page, context.getUrl(), context.getDeadline());
         }
 
         // 等待页面完全加载的方法
@@ -83,6 +84,14 @@ public abstract class DefaultAbsPlayWrightProcessor<I, R> extends AbsCrawlerProc
         return Stream.of(TimeoutError.class, CrawlerRetryException.class).collect(Collectors.toList());
     }
 
+    /**
+     * process 阶段通过浏览器读取页面（跨进程 I/O，而非 CPU 计算），且 Page 不宜跨线程使用，不走流水线
+     */
+    @Override
+    protected boolean pipelined() {
+        return false;
+    }
+
     @Override
     public void after(CrawlerContext<I, Page> context, R result) {
         log.info("AbstractPageProcessor: Returning page to pool: {}", context);
@@ -1,6 +1,11 @@
 package com.poly.crawler.properties;
 
-
+import com.poly.crawler.enums.RouteType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import lombok.Data;
 import lombok.Getter;
 import lombok.Setter;
@@ -22,11 +27,27 @@ public class CrawlerProperties {
     private Proxy proxy;
     private Http http;
     private Thread thread;
+    private RateLimit rateLimit = new RateLimit();
+    private Submit submit = new Submit();
+    private Retry retry = new Retry();
+    private Pipeline pipeline = new Pipeline();
+    private FanOut fanOut = new FanOut();
+    private AdaptiveLimit adaptiveLimit = new AdaptiveLimit();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private SingleFlight singleFlight = new SingleFlight();
+    private Cache cache = new Cache();
+    private HttpCache httpCache = new HttpCache();
+    private SeenSet seenSet = new SeenSet();
+    private Frontier frontier = new Frontier();
+
+    private Checkpoint checkpoint = new Checkpoint();
+    private ProxyPool proxyPool = new ProxyPool();
+    private Route route = new Route();
 
     private int maxRetries;
 
     /**
-     * 请求间隔时间
+     * 重试间隔时间
      */
     private long retryDelayMs;
 
@@ -64,14 +85,434 @@ public class CrawlerProperties {
         private int maxTotalConnect;
         private int maxConnectPerRoute;
 
+        /**
+         * 代理连接 keep-alive 上限（毫秒），响应头未指定时按此时间保持
+         */
+        private long keepAliveMs = 30000;
+
+        /**
+         * 代理连接空闲超过该时间（秒）后由后台线程关闭
+         */
+        private long idleEvictSeconds = 60;
+
+        /**
+         * 代理异步客户端 I/O 线程数，小于等于 0 时为 CPU 核数
+         */
+        private int ioThreads;
+
+        /**
+         * 解压后响应体上限（字节），超过时中止下载，小于等于 0 表示不限制
+         */
+        private long maxBodyBytes = 10 * 1024 * 1024;
+
+        // Getters and Setters
+
+    }
+
+    @Setter
+    @Getter
+    public static class RateLimit {
+        /**
+         * 是否开启按 host 限速
+         */
+        private boolean enabled = true;
+
+        /**
+         * 单个 host 每秒请求数，默认 0.5（每 2 秒一次）
+         */
+        private double permitsPerSecond = 0.5;
+
+        /**
+         * 单个 host 允许的突发请求数
+         */
+        private int burst = 1;
+
+        /**
+         * 指定 host 的每秒请求数，覆盖默认值
+         */
+        private Map<String, Double> hosts = new HashMap<>();
+
+        // Getters and Setters
+
+    }
+
+    @Setter
+    @Getter
+    public static class Submit {
+        /**
+         * 单个批量任务的最大在途任务数，小于等于 0 时按线程池容量计算
+         */
+        private int maxInFlight;
+
+        /**
+         * 所有批量任务合计的最大在途任务数，小于等于 0 时按线程池容量计算，不小于 maxInFlight
+         */
+        private int maxInFlightTotal;
+
+        // Getters and Setters
+
+    }
+
+    @Setter
+    @Getter
+    public static class Retry {
+        /**
+         * 单次重试退避上限（毫秒），退避基准为 retryDelayMs
+         */
+        private long maxDelayMs = 30000;
+
+        // Getters and Setters
+
+    }
+
+    @Setter
+    @Getter
+    public static class Pipeline {
+        /**
+         * 是否默认开启流水线模式（下载、处理分别在 crawlerTaskExecutor、crawlerProcessExecutor 执行）
+         */
+        private boolean enabled;
+
         // Getters and Setters
 
     }
 
+    @Setter
+    @Getter
+    public static class FanOut {
+        /**
+         * 多 code 并发爬取时单次调用的最大并发数
+         */
+        private int parallelism = 8;
+
+        /**
+         * 多 code 并发爬取的整体超时时间（秒），超时后返回已完成的结果，小于等于 0 表示不限制
+         */
+        private int timeoutSeconds = 60;
+
+        // Getters and Setters
+
+    }
+
+    @Setter
+    @Getter
+    public static class AdaptiveLimit {
+        /**
+         * 是否开启按 host 的自适应并发控制
+         */
+        private boolean enabled = true;
+
+        /**
+         * 初始并发上限
+         */
+        private int initialLimit = 10;
+
+        /**
+         * 最小并发上限
+         */
+        private int minLimit = 1;
+
+        /**
+         * 最大并发上限，不宜超过 http.maxConnectPerRoute
+         */
+        private int maxLimit = 100;
+
+        /**
+         * 延迟超过最小延迟的倍数时视为延迟上升
+         */
+        private double rttTolerance = 2.0;
+
+        /**
+         * 延迟上升时的收缩比例
+         */
+        private double backoffRatio = 0.9;
+
+        // Getters and Setters
+
+    }
+
+    @Setter
+    @Getter
+    public static class CircuitBreaker {
+        /**
+         * 是否开启按 host 熔断
+         */
+        private boolean enabled = true;
+
+        /**
+         * 连续失败多少次后熔断
+         */
+        private int failureThreshold = 5;
+
+        /**
+         * 熔断持续时间（秒），之后进入半开状态
+         */
+        private int openSeconds = 30;
+
+        /**
+         * 半开状态下允许的探测请求数
+         */
+        private int halfOpenProbes = 1;
+
+        // Getters and Setters
+
+    }
+
+    @Setter
+    @Getter
+    public static class SingleFlight {
+        /**
+         * 是否合并相同 url 的在途请求
+         */
+        private boolean enabled = true;
+
+        // Getters and Setters
+
+    }
+
+    @Setter
+    @Getter
+    public static class Cache {
+        /**
+         * 是否开启内存响应缓存
+         */
+        private boolean enabled = true;
+
+        /**
+         * 缓存占用上限（字节），默认 64MB
+         */
+        private long maxBytes = 64L * 1024 * 1024;
+
+        /**
+         * 默认缓存时间（毫秒），小于等于 0 表示不缓存
+         */
+        private long defaultTtlMs;
+
+        /**
+         * 指定处理器（类名）的缓存时间，覆盖默认值
+         */
+        private Map<String, Long> ttls = new HashMap<>();
+
+        // Getters and Setters
+
+    }
+
+    @Setter
+    @Getter
+    public static class HttpCache {
+        /**
+         * 是否开启磁盘 HTTP 缓存（ETag / Last-Modified 条件请求）
+         */
+        private boolean enabled;
+
+        /**
+         * 缓存目录
+         */
+        private String dir = System.getProperty("java.io.tmpdir") + "/poly-crawler/http-cache";
+
+        /**
+         * 缓存条目最长保留天数，超过后重新完整下载，小于等于 0 表示不限制
+         */
+        private int maxAgeDays = 30;
+
+        /**
+         * 缓存目录总字节数上限，超过后按最近使用时间淘汰，小于等于 0 表示不限制
+         */
+        private long maxBytes = 1024L * 1024 * 1024;
+
+        /**
+         * 清理过期、超量缓存文件的间隔（毫秒），小于等于 0 时不清理
+         */
+        private long sweepIntervalMs = 600_000;
+
+        // Getters and Setters
+
+    }
+
+    @Setter
+    @Getter
+    public static class SeenSet {
+        /**
+         * 是否开启已爬取 url 集合（布隆过滤器）
+         */
+        private boolean enabled;
+
+        /**
+         * 每一代的预期 url 数量，当前代写入达到此数量时轮换
+         */
+        private long expectedInsertions = 10_000_000;
+
+        /**
+         * 期望误判率
+         */
+        private double fpp = 0.01;
+
+        /**
+         * 位数组是否放在堆外
+         */
+        private boolean offHeap;
+
+        /**
+         * 持久化文件，启动时加载、关闭时保存，为空表示不持久化
+         */
+        private String file;
+
+        // Getters and Setters
+
+    }
+
+    @Setter
+    @Getter
+    public static class Frontier {
+        /**
+         * frontier 根目录，每个 frontier 一个子目录
+         */
+        private String dir = "data/frontier";
+
+        /**
+         * 段文件大小（字节），默认 64MB
+         */
+        private int segmentBytes = 64 * 1024 * 1024;
+
+        /**
+         * 每确认多少条提交一次位置
+         */
+        private int commitInterval = 1000;
+
+        // Getters and Setters
+
+    }
+
+    @Setter
+    @Getter
+    public static class Checkpoint {
+        /**
+         * 检查点日志目录，每个批量任务一个 {batchId}.journal 文件
+         */
+        private String dir = "data/checkpoint";
+
+        /**
+         * 刷盘间隔（毫秒），小于等于 0 时只在批量任务结束和应用关闭时刷盘
+         */
+        private long flushIntervalMs = 5000;
+
+        // Getters and Setters
+
+    }
+
+    @Setter
+    @Getter
+    public static class ProxyPool {
+        /**
+         * 是否开启代理池，关闭时所有请求走 crawler.proxy
+         */
+        private boolean enabled;
+
+        /**
+         * 代理列表，格式 [http://][userName:password@]host:port
+         */
+        private List<String> endpoints = new ArrayList<>();
+
+        /**
+         * 代理列表文件，每行一个代理，忽略空行和 # 开头的注释；文件修改后在下一次探测时重新加载
+         */
+        private String file;
+
+        /**
+         * 延迟、错误率的指数移动平均系数，越大越看重最近的请求
+         */
+        private double ewmaAlpha = 0.2;
+
+        /**
+         * 连续失败达到该次数后隔离
+         */
+        private int failureThreshold = 3;
+
+        /**
+         * 错误率（指数移动平均）超过该值后隔离
+         */
+        private double maxErrorRate = 0.5;
+
+        /**
+         * 视为代理被封禁的状态码，收到后立即隔离
+         * <p>默认不含 429：站点限流多数针对请求速率而非代理，由自适应并发收缩处理
+         */
+        private List<Integer> banStatusCodes = new ArrayList<>(Arrays.asList(403, 407));
+
+        /**
+         * 首次隔离时间（秒），连续隔离时翻倍
+         */
+        private long quarantineSeconds = 60;
+
+        /**
+         * 隔离时间上限（秒）
+         */
+        private long maxQuarantineSeconds = 900;
+
+        /**
+         * 后台探测间隔（秒），隔离到期的代理探测成功后恢复使用
+         */
+        private long probeIntervalSeconds = 15;
+
+        /**
+         * 探测地址
+         */
+        private String probeUrl = "http://www.gstatic.com/generate_204";
+
+        /**
+         * 探测超时时间（毫秒）
+         */
+        private int probeTimeoutMs = 5000;
+
+        // Getters and Setters
+
+    }
+
+    @Setter
+    @Getter
+    public static class Route {
+        /**
+         * 按 host 的路由规则，按顺序匹配，第一条命中的生效；未命中时 ProxyHttpManager 走代理池（或 crawler.proxy），
+         * crawlerRestTemplate 直连
+         */
+        private List<Rule> rules = new ArrayList<>();
+
+        /**
+         * IP 形式的内网地址（回环、私有网段、链路本地）及 localhost 直连，优先于 rules
+         */
+        private boolean directPrivateAddresses = true;
+
+        // Getters and Setters
+
+        @Setter
+        @Getter
+        public static class Rule {
+            /**
+             * host 匹配规则，不区分大小写，* 匹配任意字符，如 api.example.com、*.example.com
+             */
+            private String host;
+
+            /**
+             * 路由方式
+             */
+            private RouteType type = RouteType.DIRECT;
+
+            /**
+             * type 为 PROXY 时指定的代理，格式 [userName:password@]host:port，不配置时为 crawler.proxy
+             */
+            private String proxy;
+
+            // Getters and Setters
+
+        }
+    }
+
     @Setter
     @Getter
     public static class Thread {
         private Pool pool;
+        private Scheduler scheduler;
+        private Process process;
 
         // Getters and Setters
 
@@ -85,6 +526,25 @@ public class CrawlerProperties {
             // Getters and Setters
 
         }
+
+        @Setter
+        @Getter
+        public static class Scheduler {
+            private int poolSize;
+
+            // Getters and Setters
+
+        }
+
+        @Setter
+        @Getter
+        public static class Process {
+            private int poolSize;
+            private int queueCapacity;
+
+            // Getters and Setters
+
+        }
     }
 }
 
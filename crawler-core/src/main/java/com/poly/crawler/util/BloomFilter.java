@@ -0,0 +1,363 @@
+package com.poly.crawler.util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * BloomFilter 并发布隆过滤器，用于大规模 url 去重
+ * <p>按预期元素数和误判率计算位数组大小、哈希函数个数；哈希使用 Murmur3 x64 128 位结果做双重哈希。
+ * 位数组可放在堆内（{@link AtomicLongArray}，CAS 置位）或堆外（direct buffer，按字分段加锁置位）。
+ * <p>只会误判"已存在"，不会漏判；不支持删除。
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+public class BloomFilter {
+
+    private static final int MAGIC = 0x424C4F4D;
+    private static final int FORMAT_VERSION = 1;
+
+    private final BitStore bits;
+    private final long numBits;
+    private final int numHashes;
+
+    private BloomFilter(BitStore bits, int numHashes) {
+        this.bits = bits;
+        this.numBits = bits.bitSize();
+        this.numHashes = numHashes;
+    }
+
+    /**
+     * 创建布隆过滤器
+     *
+     * @param expectedInsertions 预期元素数
+     * @param fpp                期望误判率，(0, 1)
+     * @param offHeap            位数组是否放在堆外
+     */
+    public static BloomFilter create(long expectedInsertions, double fpp, boolean offHeap) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions must be positive");
+        }
+        if (fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("fpp must be in (0, 1)");
+        }
+        long numBits = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int numHashes = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (numBits + 63) >>> 6);
+        return new BloomFilter(offHeap ? new DirectBitStore(words) : new HeapBitStore(words), numHashes);
+    }
+
+    /**
+     * 加入元素
+     *
+     * @return 是否有位被改变（true 表示之前一定不存在）。并发加入同一元素时可能都返回 true
+     */
+    public boolean put(String value) {
+        long[] hash = murmur3(value.getBytes(StandardCharsets.UTF_8));
+        long combined = hash[0];
+        boolean changed = false;
+        for (int i = 0; i < numHashes; i++) {
+            changed |= bits.set((combined & Long.MAX_VALUE) % numBits);
+            combined += hash[1];
+        }
+        return changed;
+    }
+
+    /**
+     * 元素是否可能存在
+     */
+    public boolean mightContain(String value) {
+        long[] hash = murmur3(value.getBytes(StandardCharsets.UTF_8));
+        long combined = hash[0];
+        for (int i = 0; i < numHashes; i++) {
+            if (!bits.get((combined & Long.MAX_VALUE) % numBits)) {
+                return false;
+            }
+            combined += hash[1];
+        }
+        return true;
+    }
+
+    /**
+     * 按已置位数估算元素个数
+     */
+    public long approximateCount() {
+        long bitCount = bits.bitCount();
+        if (bitCount >= numBits) {
+            return Long.MAX_VALUE;
+        }
+        return Math.round(-numBits / (double) numHashes * Math.log(1 - (double) bitCount / numBits));
+    }
+
+    /**
+     * 按已置位数估算当前误判率
+     */
+    public double expectedFpp() {
+        return Math.pow((double) bits.bitCount() / numBits, numHashes);
+    }
+
+    public long getNumBits() {
+        return numBits;
+    }
+
+    public int getNumHashes() {
+        return numHashes;
+    }
+
+    public boolean isOffHeap() {
+        return bits instanceof DirectBitStore;
+    }
+
+    /**
+     * 写出到流（不关闭流）。并发写入期间保存的快照可能不含最新加入的元素
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(FORMAT_VERSION);
+        data.writeInt(numHashes);
+        data.writeInt(bits.wordSize());
+        for (int i = 0; i < bits.wordSize(); i++) {
+            data.writeLong(bits.word(i));
+        }
+        data.flush();
+    }
+
+    /**
+     * 从流中读取（不关闭流）
+     */
+    public static BloomFilter readFrom(InputStream in, boolean offHeap) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC || data.readInt() != FORMAT_VERSION) {
+            throw new IOException("Unsupported bloom filter format");
+        }
+        int numHashes = data.readInt();
+        int words = data.readInt();
+        BitStore bits = offHeap ? new DirectBitStore(words) : new HeapBitStore(words);
+        for (int i = 0; i < words; i++) {
+            bits.setWord(i, data.readLong());
+        }
+        return new BloomFilter(bits, numHashes);
+    }
+
+    /**
+     * Murmur3 x64 128 位哈希，返回 [h1, h2]
+     */
+    private static long[] murmur3(byte[] data) {
+        final long c1 = 0x87c37b91114253d5L;
+        final long c2 = 0x4cf5ad432745937fL;
+        int length = data.length;
+        int blocks = length >>> 4;
+        long h1 = 0;
+        long h2 = 0;
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < blocks; i++) {
+            long k1 = buffer.getLong(i << 4);
+            long k2 = buffer.getLong((i << 4) + 8);
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27) + h2;
+            h1 = h1 * 5 + 0x52dce729;
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31) + h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+        long k1 = 0;
+        long k2 = 0;
+        int tail = blocks << 4;
+        switch (length & 15) {
+            case 15: k2 ^= (long) (data[tail + 14] & 0xff) << 48;
+            case 14: k2 ^= (long) (data[tail + 13] & 0xff) << 40;
+            case 13: k2 ^= (long) (data[tail + 12] & 0xff) << 32;
+            case 12: k2 ^= (long) (data[tail + 11] & 0xff) << 24;
+            case 11: k2 ^= (long) (data[tail + 10] & 0xff) << 16;
+            case 10: k2 ^= (long) (data[tail + 9] & 0xff) << 8;
+            case 9: k2 ^= data[tail + 8] & 0xff;
+                h2 ^= mixK2(k2);
+            case 8: k1 ^= (long) (data[tail + 7] & 0xff) << 56;
+            case 7: k1 ^= (long) (data[tail + 6] & 0xff) << 48;
+            case 6: k1 ^= (long) (data[tail + 5] & 0xff) << 40;
+            case 5: k1 ^= (long) (data[tail + 4] & 0xff) << 32;
+            case 4: k1 ^= (long) (data[tail + 3] & 0xff) << 24;
+            case 3: k1 ^= (long) (data[tail + 2] & 0xff) << 16;
+            case 2: k1 ^= (long) (data[tail + 1] & 0xff) << 8;
+            case 1: k1 ^= data[tail] & 0xff;
+                h1 ^= mixK1(k1);
+            default:
+                break;
+        }
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+        return new long[]{h1, h2};
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= 0x87c37b91114253d5L;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * 0x4cf5ad432745937fL;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= 0x4cf5ad432745937fL;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * 0x87c37b91114253d5L;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    /**
+     * 位数组存储
+     */
+    private interface BitStore {
+
+        /**
+         * 置位
+         *
+         * @return 该位之前是否为 0
+         */
+        boolean set(long index);
+
+        boolean get(long index);
+
+        long word(int i);
+
+        void setWord(int i, long value);
+
+        int wordSize();
+
+        default long bitSize() {
+            return (long) wordSize() << 6;
+        }
+
+        default long bitCount() {
+            long count = 0;
+            for (int i = 0; i < wordSize(); i++) {
+                count += Long.bitCount(word(i));
+            }
+            return count;
+        }
+    }
+
+    /**
+     * 堆内位数组，CAS 置位
+     */
+    private static final class HeapBitStore implements BitStore {
+
+        private final AtomicLongArray words;
+
+        private HeapBitStore(int words) {
+            this.words = new AtomicLongArray(words);
+        }
+
+        @Override
+        public boolean set(long index) {
+            int i = (int) (index >>> 6);
+            long mask = 1L << index;
+            long old;
+            do {
+                old = words.get(i);
+                if ((old & mask) != 0) {
+                    return false;
+                }
+            } while (!words.compareAndSet(i, old, old | mask));
+            return true;
+        }
+
+        @Override
+        public boolean get(long index) {
+            return (words.get((int) (index >>> 6)) & (1L << index)) != 0;
+        }
+
+        @Override
+        public long word(int i) {
+            return words.get(i);
+        }
+
+        @Override
+        public void setWord(int i, long value) {
+            words.set(i, value);
+        }
+
+        @Override
+        public int wordSize() {
+            return words.length();
+        }
+    }
+
+    /**
+     * 堆外位数组（direct buffer），按字分段加锁置位，读不加锁
+     */
+    private static final class DirectBitStore implements BitStore {
+
+        private static final int STRIPES = 256;
+
+        private final ByteBuffer buffer;
+        private final int words;
+        private final Object[] locks = new Object[STRIPES];
+
+        private DirectBitStore(int words) {
+            if ((long) words << 3 > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Bloom filter too large for a direct buffer: " + words + " words");
+            }
+            this.words = words;
+            this.buffer = ByteBuffer.allocateDirect(words << 3);
+            for (int i = 0; i < STRIPES; i++) {
+                locks[i] = new Object();
+            }
+        }
+
+        @Override
+        public boolean set(long index) {
+            int i = (int) (index >>> 6);
+            long mask = 1L << index;
+            synchronized (locks[i & (STRIPES - 1)]) {
+                long old = buffer.getLong(i << 3);
+                if ((old & mask) != 0) {
+                    return false;
+                }
+                buffer.putLong(i << 3, old | mask);
+                return true;
+            }
+        }
+
+        @Override
+        public boolean get(long index) {
+            return (buffer.getLong((int) (index >>> 6) << 3) & (1L << index)) != 0;
+        }
+
+        @Override
+        public long word(int i) {
+            return buffer.getLong(i << 3);
+        }
+
+        @Override
+        public void setWord(int i, long value) {
+            buffer.putLong(i << 3, value);
+        }
+
+        @Override
+        public int wordSize() {
+            return words;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.poly.crawler.util;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 响应体字符集识别：BOM &gt; Content-Type 响应头 &gt; 页面 meta 标签 &gt; UTF-8
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+public class CharsetUtils {
+
+    /**
+     * meta 标签只在页面开头查找
+     */
+    private static final int META_SCAN_BYTES = 4096;
+
+    private static final Pattern HEADER_CHARSET = Pattern.compile("charset\\s*=\\s*[\"']?([\\w.:-]+)",
+            Pattern.CASE_INSENSITIVE);
+
+    /**
+     * 同时匹配 &lt;meta charset="gbk"&gt; 和 &lt;meta http-equiv="Content-Type" content="text/html; charset=gbk"&gt;
+     */
+    private static final Pattern META_CHARSET = Pattern.compile("<meta[^>]+charset\\s*=\\s*[\"']?([\\w.:-]+)",
+            Pattern.CASE_INSENSITIVE);
+
+    /**
+     * 按识别出的字符集解码，去掉 BOM
+     *
+     * @param body        响应体（已解压）
+     * @param contentType Content-Type 响应头，可为 null
+     */
+    public static String decode(byte[] body, String contentType) {
+        Charset charset = detect(body, contentType);
+        int offset = bomLength(body);
+        return new String(body, offset, body.length - offset, charset);
+    }
+
+    /**
+     * 识别响应体字符集
+     *
+     * @param body        响应体（已解压）
+     * @param contentType Content-Type 响应头，可为 null
+     */
+    public static Charset detect(byte[] body, String contentType) {
+        Charset charset = fromBom(body);
+        if (charset == null && contentType != null) {
+            charset = find(HEADER_CHARSET, contentType);
+        }
+        if (charset == null) {
+            String head = new String(body, 0, Math.min(body.length, META_SCAN_BYTES), StandardCharsets.ISO_8859_1);
+            charset = find(META_CHARSET, head);
+        }
+        return charset == null ? StandardCharsets.UTF_8 : charset;
+    }
+
+    /**
+     * 读取流开头识别字符集，读取后把流重置回开头
+     *
+     * @param in          响应体输入流（已解压），需支持 mark
+     * @param contentType Content-Type 响应头，可为 null
+     */
+    public static Charset detect(BufferedInputStream in, String contentType) throws IOException {
+        byte[] head = new byte[META_SCAN_BYTES];
+        in.mark(META_SCAN_BYTES);
+        int length = 0;
+        int read;
+        while (length < head.length && (read = in.read(head, length, head.length - length)) != -1) {
+            length += read;
+        }
+        in.reset();
+        return detect(length == head.length ? head : Arrays.copyOf(head, length), contentType);
+    }
+
+    /**
+     * 按识别出的字符集打开 Reader，跳过 BOM
+     *
+     * @param in          响应体输入流（已解压），需支持 mark
+     * @param contentType Content-Type 响应头，可为 null
+     */
+    public static Reader reader(BufferedInputStream in, String contentType) throws IOException {
+        Charset charset = detect(in, contentType);
+        byte[] head = new byte[3];
+        in.mark(head.length);
+        int length = 0;
+        int read;
+        while (length < head.length && (read = in.read(head, length, head.length - length)) != -1) {
+            length += read;
+        }
+        in.reset();
+        long skip = bomLength(Arrays.copyOf(head, length));
+        while (skip > 0) {
+            skip -= in.skip(skip);
+        }
+        return new InputStreamReader(in, charset);
+    }
+
+    private static Charset find(Pattern pattern, String text) {
+        Matcher matcher = pattern.matcher(text);
+        return matcher.find() ? forName(matcher.group(1)) : null;
+    }
+
+    private static Charset forName(String name) {
+        String normalized = name.toLowerCase(Locale.ROOT);
+        // 声明为 gb2312 的页面普遍含有 GBK 字符
+        if ("gb2312".equals(normalized) || "gbk".equals(normalized)) {
+            normalized = "gb18030";
+        }
+        try {
+            return Charset.forName(normalized);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            return null;
+        }
+    }
+
+    private static Charset fromBom(byte[] body) {
+        if (body.length >= 3 && (body[0] & 0xff) == 0xef && (body[1] & 0xff) == 0xbb && (body[2] & 0xff) == 0xbf) {
+            return StandardCharsets.UTF_8;
+        }
+        if (body.length >= 2 && (body[0] & 0xff) == 0xfe && (body[1] & 0xff) == 0xff) {
+            return StandardCharsets.UTF_16BE;
+        }
+        if (body.length >= 2 && (body[0] & 0xff) == 0xff && (body[1] & 0xff) == 0xfe) {
+            return StandardCharsets.UTF_16LE;
+        }
+        return null;
+    }
+
+    private static int bomLength(byte[] body) {
+        Charset bom = fromBom(body);
+        if (bom == null) {
+            return 0;
+        }
+        return bom == StandardCharsets.UTF_8 ? 3 : 2;
+    }
+}
@@ -0,0 +1,101 @@
+package com.poly.crawler.util;
+
+import com.poly.crawler.enums.CircuitState;
+import com.poly.crawler.model.CircuitBreakerStats;
+
+/**
+ * CircuitBreaker 熔断器（按连续失败次数）
+ * <ul>
+ *     <li>CLOSED：连续失败达到 failureThreshold 次后转为 OPEN。</li>
+ *     <li>OPEN：拒绝所有请求，openMillis 后转为 HALF_OPEN。</li>
+ *     <li>HALF_OPEN：最多放行 halfOpenProbes 个探测请求，探测成功转为 CLOSED，失败重新 OPEN。</li>
+ * </ul>
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+public class CircuitBreaker {
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final int halfOpenProbes;
+
+    private CircuitState state = CircuitState.CLOSED;
+    private int consecutiveFailures;
+    private long openUntil;
+    private int probesInFlight;
+    private long rejectedCount;
+    private long tripCount;
+
+    public CircuitBreaker(int failureThreshold, long openMillis, int halfOpenProbes) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = Math.max(0, openMillis);
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+    }
+
+    /**
+     * 是否放行本次请求，放行后必须调用 onSuccess / onFailure / onIgnore 之一
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == CircuitState.OPEN) {
+            if (System.currentTimeMillis() < openUntil) {
+                rejectedCount++;
+                return false;
+            }
+            state = CircuitState.HALF_OPEN;
+            probesInFlight = 0;
+        }
+        if (state == CircuitState.HALF_OPEN) {
+            if (probesInFlight >= halfOpenProbes) {
+                rejectedCount++;
+                return false;
+            }
+            probesInFlight++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == CircuitState.HALF_OPEN) {
+            state = CircuitState.CLOSED;
+            probesInFlight = 0;
+        }
+        consecutiveFailures = 0;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == CircuitState.OPEN) {
+            // 熔断前已放行的请求，不延长熔断时间
+            return;
+        }
+        if (state == CircuitState.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            tripCount++;
+            state = CircuitState.OPEN;
+            openUntil = System.currentTimeMillis() + openMillis;
+            probesInFlight = 0;
+        }
+    }
+
+    /**
+     * 放行的请求被取消等，不计入成功或失败
+     */
+    public synchronized void onIgnore() {
+        if (state == CircuitState.HALF_OPEN && probesInFlight > 0) {
+            probesInFlight--;
+        }
+    }
+
+    public synchronized CircuitBreakerStats stats(String host) {
+        return CircuitBreakerStats.builder()
+                .host(host)
+                .state(state)
+                .consecutiveFailures(consecutiveFailures)
+                .openRemainingMillis(state == CircuitState.OPEN
+                        ? Math.max(0, openUntil - System.currentTimeMillis()) : 0)
+                .rejectedCount(rejectedCount)
+                .tripCount(tripCount)
+                .build();
+    }
+}
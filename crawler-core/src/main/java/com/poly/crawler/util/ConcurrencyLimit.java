@@ -0,0 +1,180 @@
+package com.poly.crawler.util;
+
+import com.poly.crawler.model.ConcurrencyLimitStats;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConcurrencyLimit 自适应并发上限（AIMD + 延迟梯度）
+ * <p>延迟平稳且上限被用满时加性增长（每个成功请求 +1/limit，约每轮 RTT +1）；
+ * 延迟超过最小延迟的 rttTolerance 倍时按 backoffRatio 收缩；超时、429、503 时减半。
+ * <p>许可可以同步等待（{@link #acquire(long)}），也可以异步排队（{@link #acquireAsync()}）：
+ * 释放许可时按排队顺序交给异步等待者，等待者的回调在释放许可的线程中、锁外执行。
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+public class ConcurrencyLimit {
+
+    /**
+     * 每隔多少个样本用平均延迟重置一次最小延迟，跟随网络状况变化
+     */
+    private static final int MIN_RTT_WINDOW = 500;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double backoffRatio;
+
+    private double limit;
+    private int inFlight;
+    private long minRttNanos = Long.MAX_VALUE;
+    private double avgRttNanos;
+    private long samples;
+    private long successCount;
+    private long droppedCount;
+
+    /**
+     * 异步等待许可的请求
+     */
+    private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+
+    public ConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double rttTolerance, double backoffRatio) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.rttTolerance = Math.max(1, rttTolerance);
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    /**
+     * 获取一个并发许可，达到上限时等待
+     *
+     * @return 是否获取成功，等待超时返回 false
+     */
+    public synchronized boolean acquire(long timeoutNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (inFlight >= (int) limit) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * 异步获取一个并发许可，达到上限时排队，不阻塞调用线程
+     * <p>取消返回的 future 即放弃等待；future 正常完成后取消无效，需照常释放许可。
+     */
+    public CompletableFuture<Void> acquireAsync() {
+        CompletableFuture<Void> waiter;
+        synchronized (this) {
+            if (waiters.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                return CompletableFuture.completedFuture(null);
+            }
+            waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+        }
+        waiter.whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                synchronized (this) {
+                    waiters.remove(waiter);
+                }
+            }
+        });
+        return waiter;
+    }
+
+    /**
+     * 请求成功，按延迟调整上限
+     */
+    public void onSuccess(long rttNanos) {
+        synchronized (this) {
+            // 释放前的在途数，判断上限是否被用满
+            int used = inFlight;
+            release();
+            successCount++;
+            avgRttNanos = avgRttNanos == 0 ? rttNanos : avgRttNanos * 0.9 + rttNanos * 0.1;
+            if (++samples % MIN_RTT_WINDOW == 0) {
+                minRttNanos = (long) avgRttNanos;
+            }
+            minRttNanos = Math.min(minRttNanos, rttNanos);
+
+            if (rttNanos > minRttNanos * rttTolerance) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (used * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+        grant();
+    }
+
+    /**
+     * 请求超时或被限流（429、503），上限减半
+     */
+    public void onDropped() {
+        synchronized (this) {
+            release();
+            droppedCount++;
+            limit = Math.max(minLimit, limit / 2);
+        }
+        grant();
+    }
+
+    /**
+     * 与目标站点负载无关的失败（如 404、解析异常），只释放许可
+     */
+    public void onIgnore() {
+        synchronized (this) {
+            release();
+        }
+        grant();
+    }
+
+    public synchronized ConcurrencyLimitStats stats(String host) {
+        return ConcurrencyLimitStats.builder()
+                .host(host)
+                .limit((int) limit)
+                .inFlight(inFlight)
+                .minRttMillis(minRttNanos == Long.MAX_VALUE ? 0 : TimeUnit.NANOSECONDS.toMillis(minRttNanos))
+                .avgRttMillis(TimeUnit.NANOSECONDS.toMillis((long) avgRttNanos))
+                .successCount(successCount)
+                .droppedCount(droppedCount)
+                .waiting(waiters.size())
+                .build();
+    }
+
+    private void release() {
+        inFlight--;
+        notifyAll();
+    }
+
+    /**
+     * 把空出的许可交给排队的异步等待者，在锁外完成 future
+     */
+    private void grant() {
+        while (true) {
+            CompletableFuture<Void> waiter;
+            synchronized (this) {
+                if (waiters.isEmpty() || inFlight >= (int) limit) {
+                    return;
+                }
+                waiter = waiters.poll();
+                inFlight++;
+            }
+            if (!waiter.complete(null)) {
+                // 等待者已取消，许可交给下一个
+                synchronized (this) {
+                    release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.poly.crawler.util;
+
+import com.poly.crawler.exception.CrawlerException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * MappedLines 通过内存映射逐行读取大文件（UTF-8，'\n' 或 "\r\n" 换行）
+ * <p>按窗口映射文件，每次只映射一段，跨窗口的行从行首重新映射；行内容在页缓存中，只有当前行会复制到堆。
+ * 每次 {@link #iterator()} 从文件开头读取，迭代器非线程安全。
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+public class MappedLines implements Iterable<String> {
+
+    private static final int DEFAULT_WINDOW_BYTES = 64 * 1024 * 1024;
+
+    private final Path file;
+    private final int windowBytes;
+
+    public MappedLines(Path file) {
+        this(file, DEFAULT_WINDOW_BYTES);
+    }
+
+    /**
+     * @param windowBytes 映射窗口大小，单行长度（含换行符）不能超过窗口
+     */
+    public MappedLines(Path file, int windowBytes) {
+        this.file = file;
+        this.windowBytes = windowBytes;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new LineIterator();
+    }
+
+    private final class LineIterator implements Iterator<String> {
+
+        private long size = -1;
+        private MappedByteBuffer window;
+
+        /**
+         * 当前窗口在文件中的起始位置
+         */
+        private long windowStart;
+        private String next;
+        private boolean first = true;
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                try {
+                    next = readLine();
+                } catch (IOException e) {
+                    throw new CrawlerException("Failed to read " + file, e);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String line = next;
+            next = null;
+            return line;
+        }
+
+        private String readLine() throws IOException {
+            if (size < 0) {
+                map(0);
+            }
+            while (true) {
+                int start = window.position();
+                int limit = window.limit();
+                if (start >= limit && windowStart + limit >= size) {
+                    return null;
+                }
+                for (int i = start; i < limit; i++) {
+                    if (window.get(i) == '\n') {
+                        window.position(i + 1);
+                        return decode(start, i);
+                    }
+                }
+                if (windowStart + limit >= size) {
+                    // 文件末尾没有换行的最后一行
+                    window.position(limit);
+                    return decode(start, limit);
+                }
+                if (start == 0 && limit == windowBytes) {
+                    throw new CrawlerException("Line exceeds " + windowBytes + " bytes in " + file);
+                }
+                map(windowStart + start);
+            }
+        }
+
+        private void map(long position) throws IOException {
+            // 映射建立后不依赖 channel，映射完立即关闭
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                size = channel.size();
+                windowStart = position;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(windowBytes, size - position));
+            }
+        }
+
+        private String decode(int start, int end) {
+            if (end > start && window.get(end - 1) == '\r') {
+                end--;
+            }
+            byte[] bytes = new byte[end - start];
+            ByteBuffer line = window.duplicate();
+            line.position(start);
+            line.get(bytes);
+            String text = new String(bytes, StandardCharsets.UTF_8);
+            if (first) {
+                first = false;
+                // 去掉 UTF-8 BOM
+                if (!text.isEmpty() && text.charAt(0) == '\uFEFF') {
+                    text = text.substring(1);
+                }
+            }
+            return text;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.poly.crawler.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * MappedQueue 基于分段内存映射文件的持久化队列（单进程）
+ * <ul>
+ *     <li>追加写：记录格式为 [int 长度][内容]，先写内容再写长度，崩溃时未写完的记录长度为 0，重启后被忽略。</li>
+ *     <li>分段：每个段文件固定大小，写满后写入换段标记（长度 -1）并创建下一个段，已提交的段会被删除。</li>
+ *     <li>ack / commit：poll 出的记录 ack 后，连续 ack 的位置才会推进提交位置；commit 把提交位置写入 meta 文件。
+ *     重启或 {@link #rewind()} 后从提交位置重新投递（至少一次）。</li>
+ * </ul>
+ * 数据在页缓存中，不占用堆内存。所有方法线程安全。
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@Slf4j
+public class MappedQueue implements Closeable {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String META_FILE = "meta";
+    private static final int HEADER_BYTES = 4;
+    private static final int ROLL_MARKER = -1;
+    private static final int META_BYTES = 8 + 4 + 8;
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final int commitInterval;
+    private final FileChannel metaChannel;
+
+    /**
+     * 未删除的段，段号 -> 映射
+     */
+    private final TreeMap<Long, MappedByteBuffer> segments = new TreeMap<>();
+
+    private Position writePosition;
+    private Position readPosition;
+    private Position commitPosition;
+    private long writeSeq;
+    private long readSeq;
+
+    /**
+     * 连续 ack 的下一个序号（即提交序号）
+     */
+    private long ackSeq;
+
+    /**
+     * 已 poll 未提交的记录：序号 -> 记录结束位置
+     */
+    private final TreeMap<Long, Position> inflight = new TreeMap<>();
+    private final Set<Long> acked = new HashSet<>();
+    private int acksSinceCommit;
+
+    /**
+     * 打开（不存在时创建）队列
+     *
+     * @param dir            队列目录
+     * @param segmentBytes   段文件大小
+     * @param commitInterval 每 ack 多少条自动提交一次，小于等于 0 表示只手动提交
+     */
+    public MappedQueue(Path dir, int segmentBytes, int commitInterval) throws IOException {
+        if (segmentBytes <= HEADER_BYTES * 2) {
+            throw new IllegalArgumentException("segmentBytes too small: " + segmentBytes);
+        }
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.commitInterval = commitInterval;
+        Files.createDirectories(dir);
+        this.metaChannel = FileChannel.open(dir.resolve(META_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        recover();
+    }
+
+    /**
+     * 追加一条记录
+     */
+    public synchronized void append(byte[] payload) throws IOException {
+        if (payload.length == 0) {
+            throw new IllegalArgumentException("Empty record");
+        }
+        int required = HEADER_BYTES + payload.length;
+        if (required > segmentBytes - HEADER_BYTES) {
+            throw new IOException("Record too large: " + payload.length + " bytes");
+        }
+        if (writePosition.offset + required > segmentBytes - HEADER_BYTES) {
+            // 当前段剩余空间不足，写换段标记
+            MappedByteBuffer current = segments.get(writePosition.segment);
+            current.putInt(writePosition.offset, ROLL_MARKER);
+            writePosition = new Position(writePosition.segment + 1, 0);
+            segments.put(writePosition.segment, map(writePosition.segment));
+        }
+        MappedByteBuffer buffer = segments.get(writePosition.segment);
+        ByteBuffer body = buffer.duplicate();
+        body.position(writePosition.offset + HEADER_BYTES);
+        body.put(payload);
+        // 长度最后写，保证记录完整后才可见
+        buffer.putInt(writePosition.offset, payload.length);
+        writePosition = new Position(writePosition.segment, writePosition.offset + required);
+        writeSeq++;
+    }
+
+    /**
+     * 取出下一条记录（不删除，需 ack）
+     *
+     * @return 记录，队列为空时返回 null
+     */
+    public synchronized Record poll() throws IOException {
+        if (readSeq >= writeSeq) {
+            return null;
+        }
+        MappedByteBuffer buffer = segments.get(readPosition.segment);
+        int length = buffer.getInt(readPosition.offset);
+        if (length == ROLL_MARKER) {
+            readPosition = new Position(readPosition.segment + 1, 0);
+            buffer = segments.get(readPosition.segment);
+            length = buffer.getInt(readPosition.offset);
+        }
+        byte[] payload = new byte[length];
+        ByteBuffer body = buffer.duplicate();
+        body.position(readPosition.offset + HEADER_BYTES);
+        body.get(payload);
+        readPosition = new Position(readPosition.segment, readPosition.offset + HEADER_BYTES + length);
+        long seq = readSeq++;
+        inflight.put(seq, readPosition);
+        return new Record(seq, payload);
+    }
+
+    /**
+     * 确认记录已处理
+     */
+    public synchronized void ack(long seq) throws IOException {
+        if (seq < ackSeq || !inflight.containsKey(seq)) {
+            return;
+        }
+        acked.add(seq);
+        while (acked.remove(ackSeq)) {
+            commitPosition = inflight.remove(ackSeq);
+            ackSeq++;
+        }
+        if (commitInterval > 0 && ++acksSinceCommit >= commitInterval) {
+            commit();
+        }
+    }
+
+    /**
+     * 持久化提交位置，并删除已全部提交的段
+     */
+    public synchronized void commit() throws IOException {
+        acksSinceCommit = 0;
+        ByteBuffer meta = ByteBuffer.allocate(META_BYTES);
+        meta.putLong(commitPosition.segment).putInt(commitPosition.offset).putLong(ackSeq).flip();
+        while (meta.hasRemaining()) {
+            metaChannel.write(meta, meta.position());
+        }
+        metaChannel.force(false);
+        for (MappedByteBuffer buffer : segments.values()) {
+            buffer.force();
+        }
+        while (segments.firstKey() < commitPosition.segment) {
+            long segment = segments.pollFirstEntry().getKey();
+            try {
+                Files.deleteIfExists(segmentPath(segment));
+            } catch (IOException e) {
+                log.warn("Failed to delete frontier segment {}: {}", segmentPath(segment), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 读位置回退到提交位置，丢弃已 poll 未提交的记录状态，这些记录会被重新 poll（至少一次）
+     * <p>用于同一进程内重新消费：上次消费中被取消、未 ack 的记录不再阻塞提交位置。调用时不应有仍在处理中的记录。
+     */
+    public synchronized void rewind() {
+        readPosition = commitPosition;
+        readSeq = ackSeq;
+        inflight.clear();
+        acked.clear();
+    }
+
+    /**
+     * 未确认的记录数（含已 poll 未 ack）
+     */
+    public synchronized long pending() {
+        return writeSeq - ackSeq;
+    }
+
+    /**
+     * 尚未 poll 的记录数
+     */
+    public synchronized long remaining() {
+        return writeSeq - readSeq;
+    }
+
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        commit();
+        metaChannel.close();
+        segments.clear();
+    }
+
+    /**
+     * 从 meta 文件恢复提交位置，扫描段文件恢复写位置
+     */
+    private void recover() throws IOException {
+        Position committed = new Position(0, 0);
+        long committedSeq = 0;
+        if (metaChannel.size() >= META_BYTES) {
+            ByteBuffer meta = ByteBuffer.allocate(META_BYTES);
+            while (meta.hasRemaining() && metaChannel.read(meta, meta.position()) > 0) {
+                // 读满为止
+            }
+            meta.flip();
+            committed = new Position(meta.getLong(), meta.getInt());
+            committedSeq = meta.getLong();
+        }
+
+        long firstSegment = committed.segment;
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .filter(segment -> segment < firstSegment)
+                    .forEach(segment -> {
+                        try {
+                            Files.deleteIfExists(segmentPath(segment));
+                        } catch (IOException e) {
+                            log.warn("Failed to delete frontier segment {}: {}", segmentPath(segment), e.getMessage());
+                        }
+                    });
+        }
+        long segment = committed.segment;
+        while (segment == committed.segment || Files.exists(segmentPath(segment))) {
+            segments.put(segment, map(segment));
+            segment++;
+        }
+
+        // 从提交位置向后扫描，得到写位置和未提交记录数
+        Position position = committed;
+        long seq = committedSeq;
+        while (true) {
+            MappedByteBuffer buffer = segments.get(position.segment);
+            if (position.offset + HEADER_BYTES > segmentBytes) {
+                break;
+            }
+            int length = buffer.getInt(position.offset);
+            if (length == ROLL_MARKER) {
+                if (!segments.containsKey(position.segment + 1)) {
+                    segments.put(position.segment + 1, map(position.segment + 1));
+                }
+                position = new Position(position.segment + 1, 0);
+                continue;
+            }
+            if (length <= 0 || position.offset + HEADER_BYTES + length > segmentBytes) {
+                break;
+            }
+            position = new Position(position.segment, position.offset + HEADER_BYTES + length);
+            seq++;
+        }
+        // 写位置之后的段是空的，删除
+        while (segments.lastKey() > position.segment) {
+            long last = segments.pollLastEntry().getKey();
+            Files.deleteIfExists(segmentPath(last));
+        }
+
+        this.commitPosition = committed;
+        this.readPosition = committed;
+        this.writePosition = position;
+        this.ackSeq = committedSeq;
+        this.readSeq = committedSeq;
+        this.writeSeq = seq;
+        log.info("Frontier {} recovered, pending: {}, segments: {}", dir, writeSeq - ackSeq, segments.size());
+    }
+
+    private MappedByteBuffer map(long segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return dir.resolve(String.format("%020d%s", segment, SEGMENT_SUFFIX));
+    }
+
+    @AllArgsConstructor
+    private static final class Position {
+        private final long segment;
+        private final int offset;
+    }
+
+    /**
+     * 队列记录
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class Record {
+
+        /**
+         * 序号，用于 ack
+         */
+        private final long seq;
+
+        /**
+         * 记录内容
+         */
+        private final byte[] payload;
+    }
+}
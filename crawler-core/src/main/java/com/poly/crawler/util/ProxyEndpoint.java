@@ -0,0 +1,209 @@
+package com.poly.crawler.util;
+
+import com.poly.crawler.model.ProxyStats;
+import org.apache.http.HttpHost;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.ChallengeState;
+import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.client.AuthCache;
+import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.auth.BasicScheme;
+import org.apache.http.impl.client.BasicAuthCache;
+import org.apache.http.impl.client.BasicCredentialsProvider;
+
+/**
+ * ProxyEndpoint 代理池中的单个代理及其健康状态
+ * <ul>
+ *     <li>健康分：延迟（指数移动平均）×（在途请求数 + 1）÷（1 - 错误率），越小越健康。</li>
+ *     <li>连续失败达到 failureThreshold 次、错误率超过 maxErrorRate 或被封禁时隔离，连续隔离时隔离时间翻倍。</li>
+ *     <li>隔离到期后由后台探测，探测成功才恢复使用，失败继续隔离。</li>
+ * </ul>
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+public class ProxyEndpoint {
+
+    private final HttpHost host;
+    private final String userName;
+    private final String password;
+    private final double alpha;
+    private final int failureThreshold;
+    private final double maxErrorRate;
+    private final long quarantineMillis;
+    private final long maxQuarantineMillis;
+
+    private double latencyMs;
+    private double errorRate;
+    private int inFlight;
+    private int consecutiveFailures;
+    private int consecutiveQuarantines;
+    private long quarantinedUntil;
+    private boolean quarantined;
+    private boolean probing;
+    private long requestCount;
+    private long failureCount;
+    private long banCount;
+    private long quarantineCount;
+
+    public ProxyEndpoint(HttpHost host, String userName, String password, double alpha, int failureThreshold,
+            double maxErrorRate, long quarantineMillis, long maxQuarantineMillis) {
+        this.host = host;
+        this.userName = userName;
+        this.password = password;
+        this.alpha = alpha > 0 && alpha <= 1 ? alpha : 0.2;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.maxErrorRate = maxErrorRate;
+        this.quarantineMillis = Math.max(0, quarantineMillis);
+        this.maxQuarantineMillis = Math.max(this.quarantineMillis, maxQuarantineMillis);
+    }
+
+    /**
+     * 代理认证上下文：预先发送 Basic 认证，代理返回 407 时也能按凭证重试；没有用户名时不认证
+     */
+    public static HttpClientContext httpContext(HttpHost proxy, String userName, String password) {
+        HttpClientContext httpContext = HttpClientContext.create();
+        authenticate(httpContext, proxy, userName, password);
+        return httpContext;
+    }
+
+    /**
+     * 在已有上下文中设置代理认证，没有用户名时不修改
+     */
+    public static void authenticate(HttpClientContext httpContext, HttpHost proxy, String userName, String password) {
+        if (proxy == null || userName == null || userName.isEmpty()) {
+            return;
+        }
+        CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+        credentialsProvider.setCredentials(new AuthScope(proxy), new UsernamePasswordCredentials(userName, password));
+        AuthCache authCache = new BasicAuthCache();
+        authCache.put(proxy, new BasicScheme(ChallengeState.PROXY));
+        httpContext.setCredentialsProvider(credentialsProvider);
+        httpContext.setAuthCache(authCache);
+    }
+
+    public HttpHost getHost() {
+        return host;
+    }
+
+    public String getKey() {
+        return host.toHostString();
+    }
+
+    public HttpClientContext httpContext() {
+        return httpContext(host, userName, password);
+    }
+
+    public void authenticate(HttpClientContext httpContext) {
+        authenticate(httpContext, host, userName, password);
+    }
+
+    public synchronized boolean isAvailable() {
+        return !quarantined;
+    }
+
+    public synchronized double score() {
+        return Math.max(1, latencyMs) * (inFlight + 1) / Math.max(0.05, 1 - errorRate);
+    }
+
+    /**
+     * 开始一次请求，之后必须调用 onSuccess / onFailure / onBan / onIgnore 之一
+     */
+    public synchronized void onStart() {
+        inFlight++;
+        requestCount++;
+    }
+
+    public synchronized void onSuccess(long latency) {
+        inFlight = Math.max(0, inFlight - 1);
+        latencyMs = latencyMs <= 0 ? latency : latencyMs + alpha * (latency - latencyMs);
+        errorRate = errorRate * (1 - alpha);
+        consecutiveFailures = 0;
+        consecutiveQuarantines = 0;
+    }
+
+    /**
+     * @return 是否因此进入隔离
+     */
+    public synchronized boolean onFailure() {
+        inFlight = Math.max(0, inFlight - 1);
+        failureCount++;
+        errorRate = errorRate + alpha * (1 - errorRate);
+        consecutiveFailures++;
+        if (!quarantined && (consecutiveFailures >= failureThreshold || errorRate > maxErrorRate)) {
+            this.quarantine();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return 是否因此进入隔离
+     */
+    public synchronized boolean onBan() {
+        inFlight = Math.max(0, inFlight - 1);
+        banCount++;
+        if (!quarantined) {
+            this.quarantine();
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized void onIgnore() {
+        inFlight = Math.max(0, inFlight - 1);
+    }
+
+    /**
+     * 隔离到期且没有在探测时开始探测
+     */
+    public synchronized boolean tryStartProbe() {
+        if (!quarantined || probing || System.currentTimeMillis() < quarantinedUntil) {
+            return false;
+        }
+        probing = true;
+        return true;
+    }
+
+    /**
+     * 探测成功，恢复使用；错误率清零，连续隔离次数保留到下一次真实请求成功
+     */
+    public synchronized void onProbeSuccess(long latency) {
+        probing = false;
+        quarantined = false;
+        latencyMs = latency;
+        errorRate = 0;
+        consecutiveFailures = 0;
+    }
+
+    public synchronized void onProbeFailure() {
+        probing = false;
+        this.quarantine();
+    }
+
+    private void quarantine() {
+        quarantined = true;
+        quarantineCount++;
+        long duration = quarantineMillis << Math.min(consecutiveQuarantines, 20);
+        quarantinedUntil = System.currentTimeMillis() + Math.min(duration, maxQuarantineMillis);
+        consecutiveQuarantines++;
+    }
+
+    public synchronized ProxyStats stats() {
+        return ProxyStats.builder()
+                .proxy(getKey())
+                .quarantined(quarantined)
+                .quarantineRemainingMillis(quarantined
+                        ? Math.max(0, quarantinedUntil - System.currentTimeMillis()) : 0)
+                .latencyMs(latencyMs)
+                .errorRate(errorRate)
+                .inFlight(inFlight)
+                .requestCount(requestCount)
+                .failureCount(failureCount)
+                .banCount(banCount)
+                .quarantineCount(quarantineCount)
+                .build();
+    }
+}
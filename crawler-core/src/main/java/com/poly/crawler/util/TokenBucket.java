@@ -0,0 +1,59 @@
+package com.poly.crawler.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TokenBucket 令牌桶（预约式，不阻塞线程）
+ * <p>每次 {@link #reserve()} 预占一个令牌并返回需要等待的时间，令牌不足时允许透支，
+ * 调用方按返回的等待时间延迟执行即可，无需 sleep。
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+public class TokenBucket {
+
+    /**
+     * 每秒生成的令牌数
+     */
+    private final double permitsPerSecond;
+
+    /**
+     * 桶容量（允许的突发请求数）
+     */
+    private final double capacity;
+
+    private double tokens;
+
+    private long lastRefillNanos;
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.capacity = Math.max(1, burst);
+        this.tokens = this.capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * 预占一个令牌
+     *
+     * @return 令牌可用前需要等待的纳秒数，0 表示可立即执行
+     */
+    public synchronized long reserve() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * permitsPerSecond / TimeUnit.SECONDS.toNanos(1));
+        lastRefillNanos = now;
+        tokens -= 1;
+        if (tokens >= 0) {
+            return 0;
+        }
+        return (long) Math.ceil(-tokens / permitsPerSecond * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+}
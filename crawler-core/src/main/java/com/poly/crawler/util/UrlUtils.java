@@ -0,0 +1,91 @@
+package com.poly.crawler.util;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * UrlUtils url 处理工具类
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+public class UrlUtils {
+
+    private static final String UNKNOWN_HOST = "";
+
+    /**
+     * 获取 url 的 host（小写），无法解析时返回空字符串
+     */
+    public static String getHost(String url) {
+        if (url == null || url.isEmpty()) {
+            return UNKNOWN_HOST;
+        }
+        try {
+            String host = URI.create(url.trim()).getHost();
+            return host == null ? UNKNOWN_HOST : host.toLowerCase(Locale.ROOT);
+        } catch (IllegalArgumentException e) {
+            // 未编码的 query 等导致 URI 解析失败时，手动截取 host
+            int start = url.indexOf("://");
+            start = start < 0 ? 0 : start + 3;
+            int end = start;
+            while (end < url.length() && "/?#:".indexOf(url.charAt(end)) < 0) {
+                end++;
+            }
+            String host = url.substring(start, end);
+            int at = host.lastIndexOf('@');
+            return (at < 0 ? host : host.substring(at + 1)).toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * 规范化 url：scheme、host 小写，去掉默认端口和锚点，query 参数排序，空 path 补 "/"
+     * <p>无法解析时返回去掉首尾空白的原 url
+     */
+    public static String canonicalize(String url) {
+        if (url == null) {
+            return null;
+        }
+        String trimmed = url.trim();
+        URI uri;
+        try {
+            uri = new URI(trimmed).normalize();
+        } catch (URISyntaxException e) {
+            return trimmed;
+        }
+        if (uri.getScheme() == null || uri.getHost() == null) {
+            return trimmed;
+        }
+        String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+        StringBuilder canonical = new StringBuilder(trimmed.length())
+                .append(scheme).append("://").append(uri.getHost().toLowerCase(Locale.ROOT));
+        int port = uri.getPort();
+        if (port > 0 && !(port == 80 && "http".equals(scheme)) && !(port == 443 && "https".equals(scheme))) {
+            canonical.append(':').append(port);
+        }
+        String path = uri.getRawPath();
+        canonical.append(path == null || path.isEmpty() ? "/" : path);
+        String query = uri.getRawQuery();
+        if (query != null && !query.isEmpty()) {
+            String[] params = query.split("&");
+            Arrays.sort(params);
+            canonical.append('?').append(String.join("&", params));
+        }
+        return canonical.toString();
+    }
+
+    /**
+     * 请求 key：规范化 url，有参数时追加 "#" + 参数 JSON（Map 按 key 排序），用于请求合并和响应缓存
+     */
+    public static String requestKey(String url, Object params) {
+        String canonical = canonicalize(url);
+        if (params == null) {
+            return canonical;
+        }
+        return canonical + "#" + JSON.toJSONString(params, SerializerFeature.MapSortField);
+    }
+}
@@ -0,0 +1,114 @@
+package com.poly.crawler.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.poly.crawler.exception.CrawlerException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import org.junit.Test;
+
+/**
+ * HttpBodyTest 未解压响应体测试
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+public class HttpBodyTest {
+
+    private static final byte[] CONTENT = repeat("<tr><td>行</td><td>row</td></tr>\n", 500);
+
+    @Test
+    public void deflateWithZlibHeader() throws IOException {
+        assertArrayEquals(CONTENT, body(deflate(CONTENT, false), "deflate", 0).toByteArray());
+    }
+
+    @Test
+    public void rawDeflateWithoutZlibHeader() throws IOException {
+        // 部分服务器发送不带 zlib 头的原始 deflate
+        assertArrayEquals(CONTENT, body(deflate(CONTENT, true), "deflate", 0).toByteArray());
+    }
+
+    @Test
+    public void zlibDetectionAcrossCompressionLevels() throws IOException {
+        for (int level = Deflater.NO_COMPRESSION; level <= Deflater.BEST_COMPRESSION; level++) {
+            for (boolean raw : new boolean[]{false, true}) {
+                byte[] compressed = deflate(CONTENT, raw, level);
+                assertArrayEquals("level " + level + ", raw " + raw, CONTENT,
+                        body(compressed, "deflate", 0).toByteArray());
+            }
+        }
+    }
+
+    @Test
+    public void gzipAndEncodingCaseInsensitive() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(CONTENT);
+        }
+        assertArrayEquals(CONTENT, body(out.toByteArray(), " GZIP ", 0).toByteArray());
+    }
+
+    @Test
+    public void identityReturnsSameArray() throws IOException {
+        HttpBody body = HttpBody.identity(CONTENT, "text/html", 0);
+        assertSame(CONTENT, body.toByteArray());
+        assertTrue(body.isSuccessful());
+    }
+
+    @Test
+    public void onlyLengthBytesAreRead() throws IOException {
+        byte[] padded = new byte[CONTENT.length + 16];
+        System.arraycopy(CONTENT, 0, padded, 0, CONTENT.length);
+        HttpBody body = new HttpBody(padded, CONTENT.length, null, null, 0, 200);
+        assertArrayEquals(CONTENT, body.toByteArray());
+    }
+
+    @Test(expected = CrawlerException.class)
+    public void decompressedSizeLimited() throws IOException {
+        // 压缩后很小，解压后超过上限
+        body(deflate(new byte[1024 * 1024], false), "deflate", 64 * 1024).toByteArray();
+    }
+
+    @Test
+    public void statusCodeDecidesSuccess() {
+        assertFalse(new HttpBody(new byte[0], 0, null, null, 0, 404).isSuccessful());
+        assertTrue(new HttpBody(new byte[0], 0, null, null, 0, 204).isSuccessful());
+    }
+
+    private static HttpBody body(byte[] bytes, String encoding, long maxBytes) {
+        return new HttpBody(bytes, bytes.length, encoding, "text/html; charset=utf-8", maxBytes, 200);
+    }
+
+    private static byte[] deflate(byte[] content, boolean raw) {
+        return deflate(content, raw, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    private static byte[] deflate(byte[] content, boolean raw, int level) {
+        Deflater deflater = new Deflater(level, raw);
+        deflater.setInput(content);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            int length = deflater.deflate(buffer);
+            out.write(buffer, 0, length);
+        }
+        deflater.end();
+        return out.toByteArray();
+    }
+
+    private static byte[] repeat(String text, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(text);
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,106 @@
+package com.poly.crawler.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.Test;
+
+/**
+ * BloomFilterTest 布隆过滤器测试
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+public class BloomFilterTest {
+
+    private static final int INSERTIONS = 100_000;
+
+    @Test
+    public void noFalseNegatives() {
+        BloomFilter filter = BloomFilter.create(INSERTIONS, 0.01, false);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put("https://example.com/item/" + i);
+        }
+        for (int i = 0; i < INSERTIONS; i++) {
+            assertTrue(filter.mightContain("https://example.com/item/" + i));
+        }
+    }
+
+    @Test
+    public void falsePositiveRateNearTarget() {
+        for (boolean offHeap : new boolean[]{false, true}) {
+            BloomFilter filter = BloomFilter.create(INSERTIONS, 0.01, offHeap);
+            for (int i = 0; i < INSERTIONS; i++) {
+                filter.put("https://example.com/item/" + i);
+            }
+            int falsePositives = 0;
+            for (int i = 0; i < INSERTIONS; i++) {
+                if (filter.mightContain("https://example.com/other/" + i)) {
+                    falsePositives++;
+                }
+            }
+            double rate = (double) falsePositives / INSERTIONS;
+            assertTrue("false positive rate " + rate, rate < 0.015);
+            assertEquals(0.01, filter.expectedFpp(), 0.005);
+        }
+    }
+
+    @Test
+    public void putReportsFirstInsertion() {
+        BloomFilter filter = BloomFilter.create(1000, 0.01, false);
+        assertTrue(filter.put("a"));
+        assertFalse(filter.put("a"));
+        assertFalse(filter.mightContain("b"));
+    }
+
+    @Test
+    public void approximateCount() {
+        BloomFilter filter = BloomFilter.create(INSERTIONS, 0.01, false);
+        for (int i = 0; i < 50_000; i++) {
+            filter.put("url-" + i);
+        }
+        assertEquals(50_000, filter.approximateCount(), 1_000);
+    }
+
+    @Test
+    public void serializationRoundTrip() throws IOException {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01, false);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("url-" + i);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        filter.writeTo(out);
+        filter.writeTo(out);
+
+        // 连续写入的两个过滤器可依次读出，堆内写出的可读到堆外
+        ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+        BloomFilter first = BloomFilter.readFrom(in, true);
+        BloomFilter second = BloomFilter.readFrom(in, false);
+        assertEquals(0, in.available());
+        for (BloomFilter loaded : new BloomFilter[]{first, second}) {
+            assertEquals(filter.getNumBits(), loaded.getNumBits());
+            assertEquals(filter.getNumHashes(), loaded.getNumHashes());
+            assertEquals(filter.approximateCount(), loaded.approximateCount());
+            for (int i = 0; i < 10_000; i++) {
+                assertTrue(loaded.mightContain("url-" + i));
+            }
+        }
+        assertTrue(first.isOffHeap());
+        assertFalse(second.isOffHeap());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsUnknownFormat() throws IOException {
+        BloomFilter.readFrom(new ByteArrayInputStream(new byte[]{0, 0, 0, 1, 0, 0, 0, 1}), false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidFpp() {
+        BloomFilter.create(100, 1.0, false);
+    }
+}
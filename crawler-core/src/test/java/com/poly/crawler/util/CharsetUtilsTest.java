@@ -0,0 +1,116 @@
+package com.poly.crawler.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+/**
+ * CharsetUtilsTest 响应体字符集识别测试
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+public class CharsetUtilsTest {
+
+    private static final Charset GB18030 = Charset.forName("GB18030");
+
+    private static final String TEXT = "中文页面，含 GBK 扩展字：镕";
+
+    @Test
+    public void bomTakesPrecedenceOverHeaderAndMeta() {
+        byte[] body = concat(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF},
+                ("<meta charset=\"gbk\">" + TEXT).getBytes(StandardCharsets.UTF_8));
+        assertEquals(StandardCharsets.UTF_8, CharsetUtils.detect(body, "text/html; charset=iso-8859-1"));
+        // 解码时去掉 BOM
+        assertEquals("<meta charset=\"gbk\">" + TEXT, CharsetUtils.decode(body, null));
+    }
+
+    @Test
+    public void utf16Bom() {
+        byte[] body = concat(new byte[]{(byte) 0xFF, (byte) 0xFE}, TEXT.getBytes(StandardCharsets.UTF_16LE));
+        assertEquals(StandardCharsets.UTF_16LE, CharsetUtils.detect(body, null));
+        assertEquals(TEXT, CharsetUtils.decode(body, null));
+    }
+
+    @Test
+    public void headerTakesPrecedenceOverMeta() {
+        byte[] body = ("<meta charset=\"utf-8\">" + TEXT).getBytes(GB18030);
+        assertEquals(GB18030, CharsetUtils.detect(body, "text/html; charset=\"GBK\""));
+    }
+
+    @Test
+    public void metaCharsetAndHttpEquiv() {
+        byte[] html5 = ("<html><head><meta charset='Shift_JIS'></head>").getBytes(StandardCharsets.US_ASCII);
+        assertEquals(Charset.forName("Shift_JIS"), CharsetUtils.detect(html5, "text/html"));
+        byte[] html4 = ("<meta http-equiv=\"Content-Type\" content=\"text/html; charset=big5\">")
+                .getBytes(StandardCharsets.US_ASCII);
+        assertEquals(Charset.forName("Big5"), CharsetUtils.detect(html4, null));
+    }
+
+    @Test
+    public void gb2312DecodedAsGb18030() {
+        // 声明为 gb2312 的页面含有 GB2312 之外的字符时仍能正确解码
+        byte[] body = ("<meta charset=\"gb2312\">" + TEXT).getBytes(GB18030);
+        assertEquals(GB18030, CharsetUtils.detect(body, null));
+        assertEquals("<meta charset=\"gb2312\">" + TEXT, CharsetUtils.decode(body, null));
+    }
+
+    @Test
+    public void unknownOrMissingCharsetFallsBackToUtf8() {
+        byte[] body = TEXT.getBytes(StandardCharsets.UTF_8);
+        assertEquals(StandardCharsets.UTF_8, CharsetUtils.detect(body, null));
+        assertEquals(StandardCharsets.UTF_8, CharsetUtils.detect(body, "text/html; charset=no-such-charset"));
+    }
+
+    @Test
+    public void metaBeyondScanWindowIgnored() {
+        StringBuilder html = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            html.append(' ');
+        }
+        html.append("<meta charset=\"gbk\">");
+        assertEquals(StandardCharsets.UTF_8,
+                CharsetUtils.detect(html.toString().getBytes(StandardCharsets.US_ASCII), null));
+    }
+
+    @Test
+    public void streamDetectionResetsAndReaderSkipsBom() throws IOException {
+        byte[] body = concat(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF}, TEXT.getBytes(StandardCharsets.UTF_8));
+        BufferedInputStream in = new BufferedInputStream(new ByteArrayInputStream(body));
+        assertEquals(StandardCharsets.UTF_8, CharsetUtils.detect(in, null));
+        // 识别后流回到开头
+        assertEquals(0xEF, in.read());
+
+        try (Reader reader = CharsetUtils.reader(new BufferedInputStream(new ByteArrayInputStream(body)), null)) {
+            assertEquals(TEXT, read(reader));
+        }
+        byte[] gbk = ("<meta charset=gbk>" + TEXT).getBytes(GB18030);
+        try (Reader reader = CharsetUtils.reader(new BufferedInputStream(new ByteArrayInputStream(gbk)), null)) {
+            assertEquals("<meta charset=gbk>" + TEXT, read(reader));
+        }
+    }
+
+    private static String read(Reader reader) throws IOException {
+        StringBuilder text = new StringBuilder();
+        char[] buffer = new char[256];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            text.append(buffer, 0, read);
+        }
+        return text.toString();
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = new byte[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
@@ -0,0 +1,72 @@
+package com.poly.crawler.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import org.junit.Test;
+
+/**
+ * ConcurrencyLimitTest 自适应并发上限测试
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+public class ConcurrencyLimitTest {
+
+    private static ConcurrencyLimit fixed(int limit) {
+        return new ConcurrencyLimit(limit, limit, limit, 2.0, 0.9);
+    }
+
+    @Test
+    public void asyncWaitersGrantedInOrderOnRelease() {
+        ConcurrencyLimit limit = fixed(1);
+        assertTrue(limit.acquireAsync().isDone());
+        CompletableFuture<Void> first = limit.acquireAsync();
+        CompletableFuture<Void> second = limit.acquireAsync();
+        assertFalse(first.isDone());
+        assertEquals(2, limit.stats("host").getWaiting());
+
+        limit.onIgnore();
+        assertTrue(first.isDone());
+        assertFalse(second.isDone());
+        limit.onSuccess(1_000_000);
+        assertTrue(second.isDone());
+        assertEquals(1, limit.stats("host").getInFlight());
+        assertEquals(0, limit.stats("host").getWaiting());
+    }
+
+    @Test
+    public void cancelledWaiterIsSkipped() {
+        ConcurrencyLimit limit = fixed(1);
+        limit.acquireAsync();
+        CompletableFuture<Void> cancelled = limit.acquireAsync();
+        CompletableFuture<Void> next = limit.acquireAsync();
+        cancelled.cancel(false);
+        assertEquals(1, limit.stats("host").getWaiting());
+
+        limit.onDropped();
+        assertTrue(next.isDone());
+        assertEquals(1, limit.stats("host").getInFlight());
+    }
+
+    @Test
+    public void syncAcquireTimesOut() throws InterruptedException {
+        ConcurrencyLimit limit = fixed(1);
+        assertTrue(limit.acquire(0));
+        assertFalse(limit.acquire(1_000_000));
+        limit.onIgnore();
+        assertTrue(limit.acquire(0));
+    }
+
+    @Test
+    public void droppedHalvesLimit() {
+        ConcurrencyLimit limit = new ConcurrencyLimit(8, 1, 16, 2.0, 0.9);
+        limit.acquireAsync();
+        limit.onDropped();
+        assertEquals(4, limit.stats("host").getLimit());
+        assertEquals(0, limit.stats("host").getInFlight());
+    }
+}
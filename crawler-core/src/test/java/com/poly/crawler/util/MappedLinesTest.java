@@ -0,0 +1,94 @@
+package com.poly.crawler.util;
+
+import static org.junit.Assert.assertEquals;
+
+import com.poly.crawler.exception.CrawlerException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * MappedLinesTest 内存映射逐行读取测试
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+public class MappedLinesTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void linesCrossingWindowBoundary() throws IOException {
+        List<String> expected = Arrays.asList("https://a.com/1", "https://b.com/22", "", "https://c.com/333",
+                "https://d.com/4444");
+        Path file = write(String.join("\n", expected) + "\n");
+        // 最长一行含换行符 19 字节，窗口小于两行之和，几乎每行都跨窗口
+        for (int window = 19; window <= 40; window++) {
+            assertEquals("window " + window, expected, read(file, window));
+        }
+    }
+
+    @Test
+    public void crlfBomAndMissingTrailingNewline() throws IOException {
+        Path file = folder.newFile().toPath();
+        byte[] bom = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+        byte[] body = "first\r\nsecond\r\nthird".getBytes(StandardCharsets.UTF_8);
+        byte[] content = new byte[bom.length + body.length];
+        System.arraycopy(bom, 0, content, 0, bom.length);
+        System.arraycopy(body, 0, content, bom.length, body.length);
+        Files.write(file, content);
+        assertEquals(Arrays.asList("first", "second", "third"), read(file, 10));
+    }
+
+    @Test
+    public void multiByteCharactersSplitByWindow() throws IOException {
+        List<String> expected = Arrays.asList("种子地址一", "种子地址二", "种子地址三");
+        Path file = write(String.join("\n", expected));
+        for (int window = 16; window <= 24; window++) {
+            assertEquals("window " + window, expected, read(file, window));
+        }
+    }
+
+    @Test
+    public void emptyFile() throws IOException {
+        assertEquals(Collections.emptyList(), read(write(""), 16));
+    }
+
+    @Test
+    public void iteratorRestartsFromBeginning() throws IOException {
+        MappedLines lines = new MappedLines(write("a\nb\n"), 16);
+        List<String> first = new ArrayList<>();
+        lines.forEach(first::add);
+        List<String> second = new ArrayList<>();
+        lines.forEach(second::add);
+        assertEquals(Arrays.asList("a", "b"), first);
+        assertEquals(first, second);
+    }
+
+    @Test(expected = CrawlerException.class)
+    public void rejectsLineLongerThanWindow() throws IOException {
+        read(write("short\nthis line is longer than the window\n"), 16);
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static List<String> read(Path file, int windowBytes) {
+        List<String> lines = new ArrayList<>();
+        new MappedLines(file, windowBytes).forEach(lines::add);
+        return lines;
+    }
+}
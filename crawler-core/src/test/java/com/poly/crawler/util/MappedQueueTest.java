@@ -0,0 +1,196 @@
+package com.poly.crawler.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * MappedQueueTest 持久化队列测试
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+public class MappedQueueTest {
+
+    /**
+     * 每段只能放下 4 条 record(i) 记录，便于触发换段
+     */
+    private static final int SEGMENT_BYTES = 64;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void rollsSegmentsAndPollsInOrder() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        try (MappedQueue queue = new MappedQueue(dir, SEGMENT_BYTES, 0)) {
+            for (int i = 0; i < 10; i++) {
+                queue.append(record(i));
+            }
+            assertTrue(queue.segmentCount() > 1);
+            assertEquals(10, queue.remaining());
+            for (int i = 0; i < 10; i++) {
+                MappedQueue.Record next = queue.poll();
+                assertEquals(i, next.getSeq());
+                assertArrayEquals(record(i), next.getPayload());
+            }
+            assertNull(queue.poll());
+            assertEquals(10, queue.pending());
+        }
+    }
+
+    @Test
+    public void outOfOrderAckCommitsContiguousPrefix() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        try (MappedQueue queue = new MappedQueue(dir, SEGMENT_BYTES, 0)) {
+            for (int i = 0; i < 10; i++) {
+                queue.append(record(i));
+            }
+            for (int i = 0; i < 10; i++) {
+                queue.poll();
+            }
+            int segments = queue.segmentCount();
+            queue.ack(2);
+            queue.ack(1);
+            assertEquals(10, queue.pending());
+            queue.ack(0);
+            assertEquals(7, queue.pending());
+            for (int i = 3; i < 9; i++) {
+                queue.ack(i);
+            }
+            assertEquals(1, queue.pending());
+            // 提交后删除已全部确认的段
+            queue.commit();
+            assertTrue(queue.segmentCount() < segments);
+            assertEquals(queue.segmentCount(), segmentFiles(dir));
+        }
+        try (MappedQueue queue = new MappedQueue(dir, SEGMENT_BYTES, 0)) {
+            assertEquals(1, queue.pending());
+            MappedQueue.Record next = queue.poll();
+            assertEquals(9, next.getSeq());
+            assertArrayEquals(record(9), next.getPayload());
+            assertNull(queue.poll());
+        }
+    }
+
+    @Test
+    public void reopenRedeliversUncommitted() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        try (MappedQueue queue = new MappedQueue(dir, SEGMENT_BYTES, 0)) {
+            for (int i = 0; i < 5; i++) {
+                queue.append(record(i));
+            }
+            queue.poll();
+            queue.poll();
+            queue.ack(1);
+        }
+        // seq 0 未确认，seq 1 即使已 ack 也从提交位置重新投递
+        try (MappedQueue queue = new MappedQueue(dir, SEGMENT_BYTES, 0)) {
+            assertEquals(5, queue.pending());
+            assertArrayEquals(record(0), queue.poll().getPayload());
+            assertArrayEquals(record(1), queue.poll().getPayload());
+            queue.append(record(5));
+            assertEquals(4, queue.remaining());
+        }
+    }
+
+    @Test
+    public void rewindRedeliversUnackedInProcess() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        try (MappedQueue queue = new MappedQueue(dir, SEGMENT_BYTES, 0)) {
+            for (int i = 0; i < 5; i++) {
+                queue.append(record(i));
+            }
+            queue.ack(queue.poll().getSeq());
+            queue.poll();
+            queue.ack(queue.poll().getSeq());
+
+            queue.rewind();
+            assertEquals(4, queue.remaining());
+            MappedQueue.Record next = queue.poll();
+            assertEquals(1, next.getSeq());
+            assertArrayEquals(record(1), next.getPayload());
+            // 回退前的 ack 已丢弃，重新 ack 后提交位置才能推进
+            queue.ack(1);
+            assertEquals(3, queue.pending());
+        }
+    }
+
+    @Test
+    public void autoCommitsEveryInterval() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        MappedQueue queue = new MappedQueue(dir, SEGMENT_BYTES, 2);
+        for (int i = 0; i < 4; i++) {
+            queue.append(record(i));
+        }
+        queue.ack(queue.poll().getSeq());
+        queue.ack(queue.poll().getSeq());
+        queue.ack(queue.poll().getSeq());
+        // 模拟崩溃：不调用 close，只有第 2 次 ack 时的自动提交生效
+        try (MappedQueue reopened = new MappedQueue(dir, SEGMENT_BYTES, 2)) {
+            assertEquals(2, reopened.pending());
+            assertArrayEquals(record(2), reopened.poll().getPayload());
+        }
+    }
+
+    @Test
+    public void ignoresCrashTruncatedRecord() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        try (MappedQueue queue = new MappedQueue(dir, SEGMENT_BYTES, 0)) {
+            queue.append(record(0));
+            queue.append(record(1));
+        }
+        // 模拟写入内容后、写入长度前崩溃：最后一条记录的长度为 0
+        Path segment = segmentPaths(dir).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4), 4 + record(0).length);
+        }
+        try (MappedQueue queue = new MappedQueue(dir, SEGMENT_BYTES, 0)) {
+            assertEquals(1, queue.pending());
+            assertArrayEquals(record(0), queue.poll().getPayload());
+            assertNull(queue.poll());
+            // 新记录覆盖未写完的位置
+            queue.append(record(2));
+            assertArrayEquals(record(2), queue.poll().getPayload());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsRecordLargerThanSegment() throws IOException {
+        try (MappedQueue queue = new MappedQueue(folder.getRoot().toPath(), SEGMENT_BYTES, 0)) {
+            queue.append(new byte[SEGMENT_BYTES]);
+        }
+    }
+
+    private static byte[] record(int i) {
+        return String.format("record-%04d", i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int segmentFiles(Path dir) throws IOException {
+        return segmentPaths(dir).size();
+    }
+
+    private static List<Path> segmentPaths(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".seg"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
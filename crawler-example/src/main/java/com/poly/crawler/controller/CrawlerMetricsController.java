@@ -0,0 +1,163 @@
+package com.poly.crawler.controller;
+
+import com.poly.crawler.manager.AdaptiveConcurrencyManager;
+import com.poly.crawler.manager.CircuitBreakerManager;
+import com.poly.crawler.manager.CheckpointManager;
+import com.poly.crawler.manager.FrontierManager;
+import com.poly.crawler.manager.HttpCacheManager;
+import com.poly.crawler.manager.ProxyHttpManager;
+import com.poly.crawler.manager.ProxyPoolManager;
+import com.poly.crawler.manager.ResponseCacheManager;
+import com.poly.crawler.manager.RouteManager;
+import com.poly.crawler.manager.SeenUrlManager;
+import com.poly.crawler.manager.SingleFlightManager;
+import com.poly.crawler.manager.SubmitWindowManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * CrawlerMetricsController 爬虫运行指标
+ *
+ * @author guojund
+ * @version 2026/10/17
+ * @since 2026-10-17
+ */
+@RestController
+@RequestMapping("metrics")
+public class CrawlerMetricsController {
+
+    @Autowired
+    private SubmitWindowManager submitWindowManager;
+
+    @Autowired
+    private AdaptiveConcurrencyManager adaptiveConcurrencyManager;
+
+    @Autowired
+    private CircuitBreakerManager circuitBreakerManager;
+
+    @Autowired
+    private SingleFlightManager singleFlightManager;
+
+    @Autowired
+    private ResponseCacheManager responseCacheManager;
+
+    @Autowired
+    private HttpCacheManager httpCacheManager;
+
+    @Autowired
+    private SeenUrlManager seenUrlManager;
+
+    @Autowired
+    private FrontierManager frontierManager;
+
+    @Autowired
+    private CheckpointManager checkpointManager;
+
+    @Autowired
+    private ProxyHttpManager proxyHttpManager;
+
+    @Autowired
+    private ProxyPoolManager proxyPoolManager;
+
+    @Autowired
+    private RouteManager routeManager;
+
+    /**
+     * 任务提交窗口：在途任务数、队列深度、等待时间
+     */
+    @GetMapping(value = "submit")
+    public ResponseEntity<?> submit() {
+        return ResponseEntity.ok(submitWindowManager.getStats());
+    }
+
+    /**
+     * 按 host 的自适应并发上限、在途请求数、延迟
+     */
+    @GetMapping(value = "concurrency")
+    public ResponseEntity<?> concurrency() {
+        return ResponseEntity.ok(adaptiveConcurrencyManager.getStats());
+    }
+
+    /**
+     * 按 host 的熔断状态
+     */
+    @GetMapping(value = "circuit")
+    public ResponseEntity<?> circuit() {
+        return ResponseEntity.ok(circuitBreakerManager.getStats());
+    }
+
+    /**
+     * 请求合并：在途 key 数、实际请求数、合并次数
+     */
+    @GetMapping(value = "single-flight")
+    public ResponseEntity<?> singleFlight() {
+        return ResponseEntity.ok(singleFlightManager.getStats());
+    }
+
+    /**
+     * 响应缓存：条目数、占用字节、命中、未命中、淘汰
+     */
+    @GetMapping(value = "cache")
+    public ResponseEntity<?> cache() {
+        return ResponseEntity.ok(responseCacheManager.getStats());
+    }
+
+    /**
+     * 磁盘 HTTP 缓存：条件请求次数、304 次数、节省字节数
+     */
+    @GetMapping(value = "http-cache")
+    public ResponseEntity<?> httpCache() {
+        return ResponseEntity.ok(httpCacheManager.getStats());
+    }
+
+    /**
+     * 已爬取 url 集合：估算元素数、误判率、跳过次数
+     */
+    @GetMapping(value = "seen-set")
+    public ResponseEntity<?> seenSet() {
+        return ResponseEntity.ok(seenUrlManager.getStats());
+    }
+
+    /**
+     * 持久化 frontier：未确认数、未取出数、段文件数
+     */
+    @GetMapping(value = "frontier")
+    public ResponseEntity<?> frontier() {
+        return ResponseEntity.ok(frontierManager.getStats());
+    }
+
+    /**
+     * 批量任务检查点：已完成数、未刷盘数
+     */
+    @GetMapping(value = "checkpoint")
+    public ResponseEntity<?> checkpoint() {
+        return ResponseEntity.ok(checkpointManager.getStats());
+    }
+
+    /**
+     * 代理连接池：使用中、空闲、等待的连接数
+     */
+    @GetMapping(value = "http-pool")
+    public ResponseEntity<?> httpPool() {
+        return ResponseEntity.ok(proxyHttpManager.getPoolStats());
+    }
+
+    /**
+     * 代理池：各代理的延迟、错误率、隔离状态
+     */
+    @GetMapping(value = "proxy-pool")
+    public ResponseEntity<?> proxyPool() {
+        return ResponseEntity.ok(proxyPoolManager.getStats());
+    }
+
+    /**
+     * 路由规则命中次数：直连、指定代理、代理池
+     */
+    @GetMapping(value = "routes")
+    public ResponseEntity<?> routes() {
+        return ResponseEntity.ok(routeManager.getStats());
+    }
+}
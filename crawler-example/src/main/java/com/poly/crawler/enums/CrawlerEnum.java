@@ -20,8 +20,8 @@ import lombok.Getter;
 @Getter
 public enum CrawlerEnum {
 
-    SOURCE_RANK_TENCENT_CHILDREN_RANK("SOURCE_RANK_TENCENT_CHILDREN_RANK", "腾讯儿童榜", "", TencentChildrenRankProcessor.class, 100),
-    BAIDU_BAIKE_PROCESSOR("BAIDU_BAIKE_PROCESSOR", "百度百科数据", "", BaiduBaiKeProcessor.class, 100),
+    SOURCE_RANK_TENCENT_CHILDREN_RANK("SOURCE_RANK_TENCENT_CHILDREN_RANK", "腾讯儿童榜", "", TencentChildrenRankProcessor.class, 100, 1),
+    BAIDU_BAIKE_PROCESSOR("BAIDU_BAIKE_PROCESSOR", "百度百科数据", "", BaiduBaiKeProcessor.class, 100, 5),
     ;
 
     /**
@@ -49,13 +49,20 @@ public enum CrawlerEnum {
      */
     private final Integer sort;
 
+    /**
+     * 总分调度时该阶段的并发上限
+     */
+    private final Integer concurrency;
+
 
-    CrawlerEnum(String code, String name, String url, Class<? extends CrawlerProcessor<?, ?, ?>> clazz, Integer sort) {
+    CrawlerEnum(String code, String name, String url, Class<? extends CrawlerProcessor<?, ?, ?>> clazz, Integer sort,
+            Integer concurrency) {
         this.code = code;
         this.name = name;
         this.url = url;
         this.clazz = clazz;
         this.sort = sort;
+        this.concurrency = concurrency;
     }
 
     /**
@@ -4,10 +4,21 @@ import com.poly.crawler.enums.CrawlerEnum;
 import com.poly.crawler.exception.CrawlerException;
 import com.poly.crawler.model.CrawlerContext;
 import com.poly.crawler.process.AbsCrawlerProcessor;
+import com.poly.crawler.process.CrawlerChainExecutor;
 import com.poly.crawler.process.CrawlerProcessor;
+import com.poly.crawler.properties.CrawlerProperties;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
@@ -19,6 +30,7 @@ import org.springframework.stereotype.Service;
  * @version 2024/12/21
  * @since 2024-12-21
  */
+@Slf4j
 @Service
 public class CrawlerService {
 
@@ -27,6 +39,12 @@ public class CrawlerService {
     @Qualifier("crawlerProcessorMap")
     private Map<String, CrawlerProcessor<?,?,?>> crawlerProcessorMap;
 
+    @Autowired
+    private CrawlerChainExecutor crawlerChainExecutor;
+
+    @Autowired
+    private CrawlerProperties crawlerProperties;
+
 
     /**
      * 爬取单条数据( 自定义Context)
@@ -70,17 +88,84 @@ public class CrawlerService {
 
 
     /**
-     * 不同枚举类型 批量 爬取 数据
+     * 不同枚举类型 批量 爬取 数据，并发执行，超时后只返回已完成的结果
      */
     public List<Object> fetchBatch(List<String> codeList) {
+        return new ArrayList<>(fetchAll(codeList).values());
+    }
+
+    /**
+     * 不同枚举类型 并发 爬取 数据
+     * <p>并发数上限为 crawler.fan-out.parallelism，整体截止时间为 crawler.fan-out.timeout-seconds，
+     * 截止时间同时下发到每个请求；到期未完成的 code 被取消，不出现在结果中
+     *
+     * @return code -> 结果，按 codeList 顺序排列，失败或超时的 code 不包含在内
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> fetchAll(List<String> codeList) {
         if (codeList.isEmpty()) {
             throw new CrawlerException("code is empty");
         }
-        return codeList.stream().map(this::fetch).collect(Collectors.toList());
+        CrawlerProperties.FanOut fanOut = crawlerProperties.getFanOut();
+        long deadline = fanOut.getTimeoutSeconds() > 0
+                ? System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(fanOut.getTimeoutSeconds()) : 0;
+        Semaphore permits = new Semaphore(Math.max(1, fanOut.getParallelism()));
+        Map<String, CompletableFuture<Object>> futures = new LinkedHashMap<>();
+        try {
+            for (String code : new LinkedHashSet<>(codeList)) {
+                AbsCrawlerProcessor<Object, Object, Object> processor =
+                        (AbsCrawlerProcessor<Object, Object, Object>) getProcessor(code);
+                if (!acquire(permits, deadline)) {
+                    log.warn("Fan-out fetch timed out before submitting code: {}", code);
+                    break;
+                }
+                CrawlerContext<Object, Object> context = processor.addCrawlerContext();
+                context.restrictDeadline(deadline);
+                CompletableFuture<Object> future = processor.submitAsync(context);
+                future.whenComplete((result, throwable) -> permits.release());
+                futures.put(code, future);
+            }
+            CompletableFuture<Void> all = CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0]));
+            if (deadline > 0) {
+                all.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } else {
+                all.get();
+            }
+        } catch (TimeoutException e) {
+            log.warn("Fan-out fetch timed out, returning partial results");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Fan-out fetch interrupted, returning partial results");
+        } catch (ExecutionException e) {
+            // submitAsync 不会异常完成，这里只做兜底
+            log.error("Error during fan-out fetch: ", e);
+        }
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        futures.forEach((code, future) -> {
+            if (!future.isDone()) {
+                future.cancel(true);
+                return;
+            }
+            Object result = future.getNow(null);
+            if (result != null) {
+                results.put(code, result);
+            }
+        });
+        return results;
+    }
+
+    private boolean acquire(Semaphore permits, long deadline) throws InterruptedException {
+        if (deadline <= 0) {
+            permits.acquire();
+            return true;
+        }
+        return permits.tryAcquire(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
     }
 
     /**
      * 总分 的触发形式，先 定义 父节点 返回 list，子节点 单个处理 （子节点可以有多个，每个子节点 定义清楚 要拿哪个url）
+     * <p>各阶段流水线执行：上一阶段每完成一条结果即进入下一阶段，阶段并发上限见 {@link CrawlerEnum#getConcurrency()}
      */
     public <R> List<R> fetch(List<String> codes) {
         // 获取 code 对应的枚举信息
@@ -89,26 +174,20 @@ public class CrawlerService {
         if (crawlEnumList.size() == 1) {
             return fetch(crawlEnumList.get(0).getCode());
         }
-        // 第一次 调度
-        List<R> currentResult = fetch(crawlEnumList.get(0).getCode());
-
-        // 从 1 开始 到 crawlEnumList.size()
-        for (int i = 1; i < crawlEnumList.size(); i++) {
-            String code = crawlEnumList.get(i).getCode();
-            currentResult = fetchBatch(code, currentResult);
-        }
         // code 列表，上次 输出 作为下次的输入
-        return currentResult;
+        List<CrawlerChainExecutor.Stage> stages = crawlEnumList.stream()
+                .map(crawlerEnum -> new CrawlerChainExecutor.Stage(getProcessor(crawlerEnum.getCode()),
+                        crawlerEnum.getConcurrency()))
+                .collect(Collectors.toList());
+        return crawlerChainExecutor.execute(stages);
     }
 
-    @SuppressWarnings("unchecked")
-    private <I, O, R> List<R> fetchBatch(String code,List<R> results) {
-        AbsCrawlerProcessor<I, O, R> processor = (AbsCrawlerProcessor<I, O, R>) crawlerProcessorMap.get(code);
-        if (processor != null) {
-            return processor.executeBatchByLastResult(results);
-        } else {
+    private AbsCrawlerProcessor<?, ?, ?> getProcessor(String code) {
+        CrawlerProcessor<?, ?, ?> processor = crawlerProcessorMap.get(code);
+        if (processor == null) {
             throw new CrawlerException("No processor found for code: " + code);
         }
+        return (AbsCrawlerProcessor<?, ?, ?>) processor;
     }
 
 }